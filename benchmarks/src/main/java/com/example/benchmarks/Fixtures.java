@@ -0,0 +1,136 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.Message;
+import com.example.server.cache.SecureMessageBodyCache;
+import com.example.server.store.MessageLog;
+import com.example.server.store.MessageLogProperties;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Shared setup for the benchmarks. Store locations default to the module resources described in
+ * the README and can be overridden with {@code -Dbenchmark.*} system properties.
+ */
+final class Fixtures {
+
+    static final String SERVER_KEYSTORE = System.getProperty(
+            "benchmark.server-keystore", "server/src/main/resources/server-keystore.p12");
+    static final String SERVER_KEYSTORE_PASSWORD = System.getProperty(
+            "benchmark.server-keystore-password", "serverpass");
+    static final String CLIENT_TRUSTSTORE = System.getProperty(
+            "benchmark.client-truststore", "client/src/main/resources/client-truststore.p12");
+    static final String CLIENT_TRUSTSTORE_PASSWORD = System.getProperty(
+            "benchmark.client-truststore-password", "truststorepass");
+
+    private Fixtures() {
+    }
+
+    // Mirrors the ObjectMapper Spring Boot auto-configures for the server and client
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // Bean-introspection baseline: the mix-in switches Message back from its hand-written (de)serializer
+    static ObjectMapper reflectiveObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(Message.class, ReflectiveMessage.class)
+                .build();
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    private abstract static class ReflectiveMessage {
+    }
+
+    // The same configuration with the CBOR factory, as registered by CborConverterConfiguration
+    static ObjectMapper cborMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(new CBORFactory())
+                .build();
+    }
+
+    static Message sampleMessage() {
+        return new Message(SecureMessageBodyCache.CONTENT, "CN=benchmark-client", LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000));
+    }
+
+    // A log in a fresh temporary directory; the directory lives under -Dbenchmark.log-dir (default: java.io.tmpdir)
+    static MessageLog messageLog(ObjectMapper objectMapper, DataSize segmentSize) throws IOException {
+        Path base = Path.of(System.getProperty("benchmark.log-dir", System.getProperty("java.io.tmpdir")));
+        Path directory = Files.createTempDirectory(Files.createDirectories(base), "message-log-");
+        return new MessageLog(objectMapper,
+                new MessageLogProperties(directory, segmentSize, Duration.ofDays(7), 4096, 65536, DataSize.ofKilobytes(4)));
+    }
+
+    static void deleteMessageLog(MessageLog messageLog) throws Exception {
+        messageLog.close();
+        FileSystemUtils.deleteRecursively(messageLog.directory());
+    }
+
+    // Only the given key entry, as the connector serves it from one SSL context per certificate type
+    static SSLContext serverSslContext(String keyAlias) throws GeneralSecurityException, IOException {
+        KeyStore serverKeyStore = loadStore(SERVER_KEYSTORE, SERVER_KEYSTORE_PASSWORD);
+        if (!serverKeyStore.isKeyEntry(keyAlias)) {
+            throw new IllegalStateException("No key entry [" + keyAlias + "] in " + SERVER_KEYSTORE
+                    + " - create it as described in README Step 1.3");
+        }
+        KeyStore.PasswordProtection protection =
+                new KeyStore.PasswordProtection(SERVER_KEYSTORE_PASSWORD.toCharArray());
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setEntry(keyAlias, serverKeyStore.getEntry(keyAlias, protection), protection);
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, SERVER_KEYSTORE_PASSWORD.toCharArray());
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
+
+    static SSLContext clientSslContext() throws GeneralSecurityException, IOException {
+        KeyStore trustStore = loadStore(CLIENT_TRUSTSTORE, CLIENT_TRUSTSTORE_PASSWORD);
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+                TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    static KeyStore loadStore(String location, String password) throws GeneralSecurityException, IOException {
+        Path path = Path.of(location);
+        if (!Files.isReadable(path)) {
+            throw new IllegalStateException("Store not found at " + path.toAbsolutePath()
+                    + " - create it as described in README Step 1 or pass -Dbenchmark.* to point at it");
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            keyStore.load(inputStream, password.toCharArray());
+        }
+        return keyStore;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one private-key operation a server performs per full handshake - signing the TLS 1.3
+ * CertificateVerify (or TLS 1.2 ServerKeyExchange) - and the matching client-side verification,
+ * with the RSA 2048 {@code server} key (rsa_pss_rsae_sha256) and the ECDSA P-256 {@code server-ec}
+ * key (ecdsa_secp256r1_sha256).
+ * <p>
+ * {@link TlsHandshakeBenchmark} runs both ends of the handshake on one thread, so it adds the
+ * client's verification cost to the server's signing cost; {@code sign} is the part that lands on
+ * the server's CPU.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class HandshakeSignatureBenchmark {
+
+    // 64 spaces, the TLS 1.3 server context string, a zero byte and a SHA-256 transcript hash
+    private static final int SIGNED_CONTENT_LENGTH = 64 + 33 + 1 + 32;
+
+    @Param({"server", "server-ec"})
+    public String keyAlias;
+
+    private PrivateKey privateKey;
+    private PublicKey publicKey;
+    private Signature signer;
+    private Signature verifier;
+    private byte[] content;
+    private byte[] signature;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = Fixtures.loadStore(Fixtures.SERVER_KEYSTORE, Fixtures.SERVER_KEYSTORE_PASSWORD);
+        privateKey = (PrivateKey) keyStore.getKey(keyAlias, Fixtures.SERVER_KEYSTORE_PASSWORD.toCharArray());
+        if (privateKey == null) {
+            throw new IllegalStateException("No key entry [" + keyAlias + "] in " + Fixtures.SERVER_KEYSTORE
+                    + " - create it as described in README Step 1.3");
+        }
+        publicKey = keyStore.getCertificate(keyAlias).getPublicKey();
+        signer = signatureFor(privateKey.getAlgorithm());
+        verifier = signatureFor(privateKey.getAlgorithm());
+        content = new byte[SIGNED_CONTENT_LENGTH];
+        Arrays.fill(content, 0, 64, (byte) ' ');
+        signature = sign();
+    }
+
+    @Benchmark
+    public byte[] sign() throws GeneralSecurityException {
+        signer.initSign(privateKey);
+        signer.update(content);
+        return signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify() throws GeneralSecurityException {
+        verifier.initVerify(publicKey);
+        verifier.update(content);
+        return verifier.verify(signature);
+    }
+
+    // The schemes JSSE prefers for each key type in TLS 1.3
+    private static Signature signatureFor(String keyAlgorithm) throws GeneralSecurityException {
+        if ("EC".equals(keyAlgorithm)) {
+            return Signature.getInstance("SHA256withECDSA");
+        }
+        Signature signature = Signature.getInstance("RSASSA-PSS");
+        signature.setParameter(new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1));
+        return signature;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.benchmarks;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+import java.nio.ByteBuffer;
+
+/**
+ * Drives a client and a server {@link SSLEngine} against each other through heap buffers, so a
+ * handshake costs only the crypto and record processing, without sockets or the kernel.
+ */
+final class InMemoryHandshake {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    private static final int MAX_ROUNDS = 64;
+
+    private InMemoryHandshake() {
+    }
+
+    static SSLSession complete(SSLEngine client, SSLEngine server) throws SSLException {
+        int packetSize = Math.max(client.getSession().getPacketBufferSize(), server.getSession().getPacketBufferSize());
+        int appSize = Math.max(client.getSession().getApplicationBufferSize(),
+                server.getSession().getApplicationBufferSize());
+        ByteBuffer clientToServer = ByteBuffer.allocate(packetSize * 4);
+        ByteBuffer serverToClient = ByteBuffer.allocate(packetSize * 4);
+        ByteBuffer clientApp = ByteBuffer.allocate(appSize);
+        ByteBuffer serverApp = ByteBuffer.allocate(appSize);
+
+        client.beginHandshake();
+        server.beginHandshake();
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            exchange(client, clientToServer, serverToClient, clientApp);
+            exchange(server, serverToClient, clientToServer, serverApp);
+            if (finished(client) && finished(server)) {
+                // Deliver post-handshake messages such as TLS 1.3 session tickets
+                exchange(server, serverToClient, clientToServer, serverApp);
+                exchange(client, clientToServer, serverToClient, clientApp);
+                return server.getSession();
+            }
+        }
+        throw new SSLException("Handshake did not complete within " + MAX_ROUNDS + " rounds");
+    }
+
+    private static void exchange(SSLEngine engine, ByteBuffer outbound, ByteBuffer inbound, ByteBuffer app)
+            throws SSLException {
+        SSLEngineResult result;
+        do {
+            result = engine.wrap(EMPTY, outbound);
+            runDelegatedTasks(engine);
+        } while (result.bytesProduced() > 0 && engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_WRAP);
+
+        inbound.flip();
+        while (inbound.hasRemaining()) {
+            result = engine.unwrap(inbound, app);
+            runDelegatedTasks(engine);
+            app.clear();
+            if (result.bytesConsumed() == 0) {
+                break;
+            }
+        }
+        inbound.compact();
+    }
+
+    private static boolean finished(SSLEngine engine) {
+        return engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING;
+    }
+
+    private static void runDelegatedTasks(SSLEngine engine) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Message} as a hash key, the way dedupe sets and per-sender grouping use it: repeated
+ * {@code contains} checks against a set and {@code merge} counting into a map, over the same
+ * message instances. The {@code *Uncached} variants wrap each message in a key with the former
+ * {@code Objects.hash} implementation for comparison; {@code toString*} compares the
+ * {@code StringBuilder} rendering with {@code String.format}. Run with {@code -prof gc} for
+ * bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MessageCollectionBenchmark {
+
+    @Param({"1024"})
+    private int size;
+
+    private List<Message> messages;
+    private List<UncachedKey> uncachedKeys;
+    private Set<Message> seen;
+    private Set<UncachedKey> seenUncached;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        Message sample = Fixtures.sampleMessage();
+        messages = new ArrayList<>(size);
+        uncachedKeys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Message m = new Message(sample.getContent(), "CN=client-" + (i % 16), sample.getTimestampMicros() + i);
+            messages.add(m);
+            uncachedKeys.add(new UncachedKey(m));
+        }
+        // Only every other message has been seen, so lookups both hit and miss
+        seen = new HashSet<>();
+        seenUncached = new HashSet<>();
+        for (int i = 0; i < size; i += 2) {
+            seen.add(messages.get(i));
+            seenUncached.add(uncachedKeys.get(i));
+        }
+        message = sample;
+    }
+
+    @Benchmark
+    public int dedupeContains() {
+        int duplicates = 0;
+        for (Message m : messages) {
+            if (seen.contains(m)) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    @Benchmark
+    public int dedupeContainsUncached() {
+        int duplicates = 0;
+        for (UncachedKey key : uncachedKeys) {
+            if (seenUncached.contains(key)) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    @Benchmark
+    public Map<Message, Integer> countByMessage() {
+        Map<Message, Integer> counts = new HashMap<>();
+        for (Message m : messages) {
+            counts.merge(m, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<UncachedKey, Integer> countByMessageUncached() {
+        Map<UncachedKey, Integer> counts = new HashMap<>();
+        for (UncachedKey key : uncachedKeys) {
+            counts.merge(key, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public String toStringBuilder() {
+        return message.toString();
+    }
+
+    @Benchmark
+    public String toStringFormat() {
+        return String.format("Message{content='%s', sender='%s', timestamp=%s}",
+                message.getContent(), message.getSender(), message.getTimestamp());
+    }
+
+    // Hashes the way Message did before caching: Objects.hash, with its varargs array and boxed long, on every call
+    private record UncachedKey(Message message) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof UncachedKey other && message.equals(other.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(message.getContent(), message.getSender(), message.getTimestampMicros());
+        }
+    }
+}
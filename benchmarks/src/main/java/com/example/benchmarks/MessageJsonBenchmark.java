@@ -0,0 +1,100 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.Message;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encode/decode of {@link Message} with the same ObjectMapper configuration the
+ * applications use, as JSON and as CBOR ({@code application/cbor}). The {@code *Reflective}
+ * variants bypass the hand-written serializer pair for comparison; run with {@code -prof gc} for
+ * bytes allocated per message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MessageJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper reflectiveMapper;
+    private ObjectMapper cborMapper;
+    private Message message;
+    private byte[] encoded;
+    private byte[] encodedCbor;
+    private ByteArrayOutputStream output;
+    private JsonGenerator generator;
+    private SerializerProvider serializerProvider;
+    private JsonSerializer<Object> serializer;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Fixtures.objectMapper();
+        message = Fixtures.sampleMessage();
+        encoded = objectMapper.writeValueAsBytes(message);
+        reflectiveMapper = Fixtures.reflectiveObjectMapper();
+        cborMapper = Fixtures.cborMapper();
+        encodedCbor = cborMapper.writeValueAsBytes(message);
+        output = new ByteArrayOutputStream(encoded.length * 2);
+        generator = objectMapper.createGenerator(output);
+        serializerProvider = objectMapper.getSerializerProviderInstance();
+        serializer = serializerProvider.findValueSerializer(Message.class);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    // The registered serializer alone, into one long-lived generator: no per-call Jackson buffers or result array
+    @Benchmark
+    public int encodeToGenerator() throws IOException {
+        output.reset();
+        serializer.serialize(message, generator, serializerProvider);
+        generator.flush();
+        return output.size();
+    }
+
+    @Benchmark
+    public Message decode() throws IOException {
+        return objectMapper.readValue(encoded, Message.class);
+    }
+
+    @Benchmark
+    public byte[] encodeReflective() throws IOException {
+        return reflectiveMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Message decodeReflective() throws IOException {
+        return reflectiveMapper.readValue(encoded, Message.class);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Message decodeCbor() throws IOException {
+        return cborMapper.readValue(encodedCbor, Message.class);
+    }
+}
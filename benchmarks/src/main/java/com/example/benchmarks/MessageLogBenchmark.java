@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.Message;
+import com.example.server.store.MessageLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable appends to {@link MessageLog}: every operation waits until its record is fsynced, the
+ * way {@code POST /api/secure/message} does. Run with more threads ({@code -t}) to see group
+ * commit amortize the fsync across concurrent appenders; the log directory can be moved to the
+ * disk under test with {@code -Dbenchmark.log-dir=...}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class MessageLogBenchmark {
+
+    private MessageLog messageLog;
+    private Message message;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Small segments so rolling over is part of the measurement
+        messageLog = Fixtures.messageLog(Fixtures.objectMapper(), DataSize.ofMegabytes(16));
+        message = Fixtures.sampleMessage();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.deleteMessageLog(messageLog);
+    }
+
+    @Benchmark
+    public long durableAppend() {
+        return messageLog.append(message).join();
+    }
+}
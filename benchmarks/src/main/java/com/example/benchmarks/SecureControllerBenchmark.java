@@ -0,0 +1,110 @@
+package com.example.benchmarks;
+
+import com.example.common.dto.Message;
+import com.example.server.cache.IdempotencyCache;
+import com.example.server.cache.SecureMessageBodyCache;
+import com.example.server.controller.SecureController;
+import com.example.server.health.HealthSnapshot;
+import com.example.server.service.MessageHistoryService;
+import com.example.server.service.MessageIngestService;
+import com.example.server.service.MessageStreamService;
+import com.example.server.store.MessageLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * In-process {@link SecureController} round trips through the Spring MVC dispatcher and Jackson,
+ * plus a direct method call as a baseline for the MVC overhead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SecureControllerBenchmark {
+
+    private final Principal principal = () -> "CN=benchmark-client";
+    private final HttpHeaders acceptJson = new HttpHeaders();
+
+    private MessageLog messageLog;
+    private SecureController controller;
+    private MockMvc mockMvc;
+    private byte[] postBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        acceptJson.setAccept(List.of(MediaType.APPLICATION_JSON));
+        messageLog = Fixtures.messageLog(objectMapper, DataSize.ofMegabytes(64));
+        SecureMessageBodyCache messageBodyCache = new SecureMessageBodyCache(objectMapper, Duration.ZERO, 10_000);
+        controller = new SecureController(
+                messageBodyCache,
+                new HealthSnapshot(objectMapper, Duration.ofSeconds(5)),
+                new MessageIngestService(messageLog, objectMapper, 1000),
+                new MessageStreamService(messageLog, 64, 100_000),
+                new MessageHistoryService(messageLog, objectMapper, 1000),
+                new IdempotencyCache(Duration.ofMinutes(10), 100_000, 64));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new ByteArrayHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        postBody = objectMapper.writeValueAsBytes(new Message("Hello from benchmark!", "Client"));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Fixtures.deleteMessageLog(messageLog);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> getMessageDirect() {
+        return controller.getSecureMessage(acceptJson, principal);
+    }
+
+    @Benchmark
+    public MvcResult getMessage() throws Exception {
+        return mockMvc.perform(get("/api/secure/message").principal(principal)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult postMessage() throws Exception {
+        return mockMvc.perform(post("/api/secure/message")
+                        .principal(principal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(postBody))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult health() throws Exception {
+        return mockMvc.perform(get("/api/secure/health")).andReturn();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLS handshakes between in-memory engines using the server keystore chain
+ * (root -> intermediate -> server) and the client truststore.
+ * <p>
+ * {@code keyAlias} selects the server certificate: the RSA 2048 {@code server} entry or the ECDSA
+ * P-256 {@code server-ec} entry. Both ends run on the benchmark thread, so the score includes the
+ * client's signature verification; {@link HandshakeSignatureBenchmark} separates the server's part.
+ * <p>
+ * With {@code resumption=false} the client engine has no peer identity, so JSSE can never offer a
+ * cached session and every iteration is a full handshake. With {@code resumption=true} the client
+ * targets a fixed host/port and resumes the session established by the first iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TlsHandshakeBenchmark {
+
+    @Param({"TLSv1.3", "TLSv1.2"})
+    public String protocol;
+
+    @Param({"false", "true"})
+    public boolean resumption;
+
+    @Param({"server", "server-ec"})
+    public String keyAlias;
+
+    private SSLContext serverContext;
+    private SSLContext clientContext;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException {
+        serverContext = Fixtures.serverSslContext(keyAlias);
+        clientContext = Fixtures.clientSslContext();
+    }
+
+    @Benchmark
+    public SSLSession handshake() throws IOException {
+        SSLEngine client = resumption
+                ? clientContext.createSSLEngine("localhost", 8443)
+                : clientContext.createSSLEngine();
+        client.setUseClientMode(true);
+        client.setEnabledProtocols(new String[] {protocol});
+
+        SSLEngine server = serverContext.createSSLEngine();
+        server.setUseClientMode(false);
+
+        return InMemoryHandshake.complete(client, server);
+    }
+}
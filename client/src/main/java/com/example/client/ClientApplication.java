@@ -1,11 +1,18 @@
 package com.example.client;
 
+import com.example.client.service.AsyncSecureApiClient;
 import com.example.client.service.SecureApiClient;
+import com.example.common.dto.BatchItemResult;
+import com.example.common.dto.Message;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 @SpringBootApplication
 public class ClientApplication {
 
@@ -14,7 +21,7 @@ public class ClientApplication {
     }
 
     @Bean
-    public CommandLineRunner demo(SecureApiClient apiClient) {
+    public CommandLineRunner demo(SecureApiClient apiClient, AsyncSecureApiClient asyncApiClient) {
         return args -> {
             System.out.println("=== Secure API Client Demo ===");
 
@@ -34,6 +41,37 @@ public class ClientApplication {
                 System.out.println("✅ Health check successful:");
                 System.out.println("   " + health);
 
+                // Test blocking fan-out (virtual threads when spring.threads.virtual.enabled=true)
+                var fanOut = apiClient.getSecureMessages(20);
+                System.out.println("✅ " + fanOut.size() + " fan-out GET requests successful");
+
+                // Test concurrent async requests
+                List<CompletableFuture<Message>> pending = IntStream.range(0, 20)
+                        .mapToObj(i -> asyncApiClient.getSecureMessage())
+                        .toList();
+                CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+                System.out.println("✅ " + pending.size() + " concurrent async GET requests successful");
+
+                // Test streaming download (parsed incrementally, never held in memory as a whole)
+                try (var feed = apiClient.streamSecureMessages(1000)) {
+                    System.out.println("✅ Streamed " + feed.count() + " messages");
+                }
+                try (var feed = apiClient.streamSecureMessages()) {
+                    System.out.println("✅ Read " + feed.limit(50).count() + " messages from the full feed");
+                }
+
+                // Test batched POST (split into batches of client.api.batch.max-size)
+                var batch = apiClient.postSecureMessages(IntStream.range(0, 250)
+                        .mapToObj(i -> "Batched message " + i)
+                        .toList());
+                long accepted = batch.stream().filter(BatchItemResult::accepted).count();
+                System.out.println("✅ Batched POST: " + accepted + "/" + batch.size() + " messages accepted");
+
+                // Test paging through stored messages
+                var page = apiClient.getStoredMessages(0, 10);
+                System.out.println("✅ Read " + page.messages().size() + " stored messages (offsets "
+                        + page.fromOffset() + "-" + (page.nextOffset() - 1) + ")");
+
             } catch (Exception e) {
                 System.err.println("❌ Error communicating with secure server:");
                 System.err.println("   " + e.getMessage());
@@ -0,0 +1,61 @@
+package com.example.client.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.net.ssl.SSLContext;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+public class AsyncHttpClientConfiguration {
+
+    /**
+     * Non-blocking client on the same SSLContext (and therefore session cache) as the classic one.
+     * <p>
+     * With {@code client.http.async.http2=true} every request to a host is multiplexed as a stream
+     * over a single TLS connection negotiated to h2 through ALPN; the server must have HTTP/2 enabled.
+     * Otherwise requests are spread over a small HTTP/1.1 pool of
+     * {@code client.http.async.max-connections} connections and queue when all of them are busy.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public CloseableHttpAsyncClient secureAsyncHttpClient(
+            SSLContext clientSslContext,
+            IdempotencyKeyRetryStrategy secureRetryStrategy,
+            @Value("${client.http.async.http2:true}") boolean http2,
+            @Value("${client.http.async.max-connections:4}") int maxConnections,
+            @Value("${client.http.pool.time-to-live:10m}") Duration timeToLive) {
+        TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                .setSslContext(clientSslContext)
+                .build();
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.of(timeToLive))
+                .build();
+
+        if (http2) {
+            return HttpAsyncClients.customHttp2()
+                    .setTlsStrategy(tlsStrategy)
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .setRetryStrategy(secureRetryStrategy)
+                    .build();
+        }
+        return HttpAsyncClients.custom()
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setTlsStrategy(tlsStrategy)
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(connectionConfig)
+                        .build())
+                .setRetryStrategy(secureRetryStrategy)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.client.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds {@code application/cbor} as a compact binary alternative to JSON for {@code Message} payloads.
+ * <p>
+ * The mapper comes from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so CBOR gets the same
+ * modules and features as the auto-configured JSON mapper rather than Spring's plain defaults. The
+ * one difference is that dates are written as numbers (a message timestamp is a single microsecond
+ * count), which are smaller and cheaper to parse than ISO strings; both forms are accepted when reading.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConverterConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
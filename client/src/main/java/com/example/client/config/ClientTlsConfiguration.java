@@ -0,0 +1,91 @@
+package com.example.client.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import java.net.URI;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+public class ClientTlsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientTlsConfiguration.class);
+
+    /**
+     * Background-refreshed CRLs for {@link RevocationCheckingTrustManager}; empty unless
+     * {@code client.ssl.revocation.crls} lists any.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "client.ssl.revocation.enabled", havingValue = "true")
+    public CrlCache clientCrlCache(
+            @Value("${client.ssl.revocation.crls:}") List<String> crls,
+            @Value("${client.ssl.revocation.crl-refresh:1h}") Duration crlRefresh,
+            ResourceLoader resourceLoader) {
+        return new CrlCache(crls.stream().map(resourceLoader::getResource).toList(), crlRefresh);
+    }
+
+    /**
+     * Single truststore-based SSLContext shared by every HTTP client, so all of them draw from the
+     * same client session cache and can resume sessions established by each other. With
+     * {@code client.ssl.revocation.enabled} the server chain is also checked for revocation, from
+     * stapled OCSP responses and cached CRLs.
+     */
+    @Bean
+    public SSLContext clientSslContext(
+            @Value("${client.ssl.trust-store:classpath:client-truststore.p12}") Resource trustStore,
+            @Value("${client.ssl.trust-store-password:truststorepass}") String trustStorePassword,
+            @Value("${client.ssl.session.cache-size:20480}") int sessionCacheSize,
+            @Value("${client.ssl.session.timeout:24h}") Duration sessionTimeout,
+            ObjectProvider<CrlCache> clientCrlCache,
+            @Value("${client.ssl.revocation.only-end-entity:true}") boolean onlyEndEntity,
+            @Value("${client.ssl.revocation.soft-fail:false}") boolean softFail,
+            @Value("${client.ssl.revocation.ocsp-responder:}") String ocspResponder,
+            @Value("${client.ssl.revocation.cache-ttl:5m}") Duration revocationCacheTtl) throws Exception {
+
+        // Load trust store
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (var inputStream = trustStore.getInputStream()) {
+            keyStore.load(inputStream, trustStorePassword.toCharArray());
+        }
+        log.debug("Loaded trust store {} with {} entries", trustStore, keyStore.size());
+
+        // Create trust managers
+        TrustManager[] trustManagers;
+        CrlCache crlCache = clientCrlCache.getIfAvailable();
+        if (crlCache != null) {
+            trustManagers = new TrustManager[]{new RevocationCheckingTrustManager(keyStore, crlCache,
+                    onlyEndEntity, softFail, ocspResponder.isBlank() ? null : URI.create(ocspResponder),
+                    revocationCacheTtl)};
+            log.debug("Checking server certificates for revocation ({})", onlyEndEntity ? "end entity only" : "whole chain");
+        } else {
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+                    TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+            trustManagers = trustManagerFactory.getTrustManagers();
+        }
+
+        // Create SSL context
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagers, null);
+
+        // Keep sessions resumable so reconnects to the same host:port use abbreviated handshakes
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(sessionCacheSize);
+        sessionContext.setSessionTimeout((int) sessionTimeout.toSeconds());
+
+        return sslContext;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.client.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens {@code client.http.warmup.connections} pooled TLS connections to {@code client.api.base-url}
+ * once the context has started and before command line runners execute, so the first API calls
+ * find established connections instead of paying for handshakes.
+ * <p>
+ * Connections are opened one after another on purpose: the first one performs a full handshake and
+ * every following one resumes its session from the shared client session cache. Each connection
+ * also carries one probe request, because a TLS 1.3 client only learns its session ticket from the
+ * first read after the handshake.
+ */
+@Component
+public class ConnectionPoolWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolWarmer.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final HttpRequestExecutor requestExecutor = new HttpRequestExecutor();
+    private final String baseUrl;
+    private final int connections;
+    private final String probePath;
+    private final Timeout timeout;
+
+    public ConnectionPoolWarmer(PoolingHttpClientConnectionManager connectionManager,
+                                @Value("${client.api.base-url:https://localhost:8443}") String baseUrl,
+                                @Value("${client.http.warmup.connections:0}") int connections,
+                                @Value("${client.http.warmup.path:/api/secure/health}") String probePath,
+                                @Value("${client.http.warmup.timeout:10s}") Duration timeout) {
+        this.connectionManager = connectionManager;
+        this.baseUrl = baseUrl;
+        this.connections = connections;
+        this.probePath = probePath;
+        this.timeout = Timeout.of(timeout);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        if (connections <= 0) {
+            return;
+        }
+        HttpRoute route = routeFor(baseUrl);
+        int target = Math.min(connections, connectionManager.getMaxPerRoute(route));
+        long start = System.nanoTime();
+
+        // Lease every endpoint before releasing any, otherwise the pool would hand back the same connection
+        List<ConnectionEndpoint> endpoints = new ArrayList<>(target);
+        int opened = 0;
+        try {
+            for (int i = 0; i < target; i++) {
+                ConnectionEndpoint endpoint = connectionManager.lease("warmup-" + i, route, timeout, null).get(timeout);
+                endpoints.add(endpoint);
+                HttpClientContext context = HttpClientContext.create();
+                if (!endpoint.isConnected()) {
+                    connectionManager.connect(endpoint, timeout, context);
+                }
+                probe(endpoint, route.getTargetHost(), "warmup-" + i, context);
+                opened++;
+            }
+        } catch (Exception e) {
+            log.warn("Connection warm-up to {} stopped after {} of {} connections: {}",
+                    route.getTargetHost(), opened, target, e.getMessage());
+        } finally {
+            for (ConnectionEndpoint endpoint : endpoints) {
+                // A null keep-alive discards the connection, a negative one keeps it until evicted
+                connectionManager.release(endpoint, null,
+                        endpoint.isConnected() ? TimeValue.NEG_ONE_MILLISECOND : null);
+            }
+        }
+        log.info("Warmed up {} TLS connection(s) to {} in {} ms",
+                opened, route.getTargetHost(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void probe(ConnectionEndpoint endpoint, HttpHost target, String id, HttpClientContext context)
+            throws IOException, HttpException {
+        BasicClassicHttpRequest request = new BasicClassicHttpRequest(Method.GET, target, probePath);
+        request.setHeader(HttpHeaders.HOST, target.toHostString());
+        ClassicHttpResponse response = endpoint.execute(id, request, requestExecutor, context);
+        // Reading the body to the end leaves the connection reusable
+        EntityUtils.consume(response.getEntity());
+    }
+
+    // Must match the route HttpClient's DefaultRoutePlanner computes for requests to the base URL
+    static HttpRoute routeFor(String baseUrl) {
+        HttpHost target = RoutingSupport.normalize(HttpHost.create(URI.create(baseUrl)), DefaultSchemePortResolver.INSTANCE);
+        return new HttpRoute(target, null, URIScheme.HTTPS.same(target.getSchemeName()));
+    }
+}
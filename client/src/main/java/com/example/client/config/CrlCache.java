@@ -0,0 +1,116 @@
+package com.example.client.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CRL;
+import java.security.cert.CertStore;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.X509CRL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificate revocation lists for server certificate validation, loaded from
+ * {@code client.ssl.revocation.crls} ({@code file:}, {@code classpath:} or {@code http(s):}) and
+ * reloaded in the background every {@code client.ssl.revocation.crl-refresh}, so handshakes never
+ * wait for a CRL download.
+ * <p>
+ * A location that fails to load keeps its previous CRLs until a later refresh succeeds. Each change
+ * produces a new {@link Snapshot}, whose generation tells trust managers to drop what they concluded
+ * from the previous one.
+ */
+public class CrlCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CrlCache.class);
+
+    /**
+     * @param nextUpdate earliest {@code nextUpdate} of the CRLs in the store, in epoch millis
+     */
+    public record Snapshot(long generation, CertStore certStore, long nextUpdate) {
+    }
+
+    private final List<Resource> locations;
+    private final Map<Resource, List<X509CRL>> loaded = new HashMap<>();
+    private final ScheduledExecutorService refresher;
+
+    private volatile Snapshot snapshot;
+
+    public CrlCache(List<Resource> locations, Duration refreshInterval) {
+        this.locations = List.copyOf(locations);
+        this.snapshot = snapshotOf(0, List.of());
+        refresh();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "crl-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, refreshInterval.toMillis());
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return whether any CRL location is configured, loaded or not
+     */
+    public boolean hasLocations() {
+        return !locations.isEmpty();
+    }
+
+    public synchronized void refresh() {
+        boolean changed = false;
+        for (Resource location : locations) {
+            try (InputStream in = location.getInputStream()) {
+                List<X509CRL> crls = new ArrayList<>();
+                for (CRL crl : CertificateFactory.getInstance("X.509").generateCRLs(in)) {
+                    crls.add((X509CRL) crl);
+                }
+                if (!crls.equals(loaded.put(location, crls))) {
+                    changed = true;
+                    log.info("Loaded {} CRL(s) from {}", crls.size(), location);
+                }
+            } catch (Exception e) {
+                log.warn("Loading CRLs from {} failed; keeping the previous ones: {}", location, e.getMessage());
+            }
+        }
+        if (changed) {
+            List<X509CRL> all = new ArrayList<>();
+            loaded.values().forEach(all::addAll);
+            snapshot = snapshotOf(snapshot.generation() + 1, all);
+        }
+    }
+
+    private static Snapshot snapshotOf(long generation, List<X509CRL> crls) {
+        long nextUpdate = Long.MAX_VALUE;
+        for (X509CRL crl : crls) {
+            if (crl.getNextUpdate() != null) {
+                nextUpdate = Math.min(nextUpdate, crl.getNextUpdate().getTime());
+            }
+        }
+        try {
+            return new Snapshot(generation,
+                    CertStore.getInstance("Collection", new CollectionCertStoreParameters(crls)), nextUpdate);
+        } catch (InvalidAlgorithmParameterException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The Collection CertStore is required by every Java platform", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.client.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration(proxyBeanMethods = false)
+public class FanOutExecutorConfiguration {
+
+    /**
+     * Executor for blocking {@link com.example.client.service.SecureApiClient} fan-out calls.
+     * <p>
+     * With {@code spring.threads.virtual.enabled=true} on Java 21 every call gets its own virtual
+     * thread, so a slow server only parks cheap threads and the connection pool is the only limit.
+     * On platform threads the number of calls in flight is capped by
+     * {@code client.http.fan-out.max-concurrency}.
+     */
+    @Bean
+    public AsyncTaskExecutor secureApiFanOutExecutor(
+            Environment environment,
+            @Value("${client.http.fan-out.max-concurrency:32}") int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("secure-api-fan-out-");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setVirtualThreads(true);
+        } else {
+            executor.setConcurrencyLimit(maxConcurrency);
+        }
+        return executor;
+    }
+}
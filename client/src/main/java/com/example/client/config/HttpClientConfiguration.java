@@ -0,0 +1,83 @@
+package com.example.client.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.net.ssl.SSLContext;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+public class HttpClientConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager secureConnectionManager(
+            SSLContext clientSslContext,
+            @Value("${client.http.pool.max-total:200}") int maxTotal,
+            @Value("${client.http.pool.max-per-route:100}") int maxPerRoute,
+            @Value("${client.http.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            @Value("${client.http.pool.time-to-live:10m}") Duration timeToLive) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+                        .setSslContext(clientSslContext)
+                        .build())
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .build();
+    }
+
+    /**
+     * HttpClientBuilder only starts its own evictor for connection managers it owns, so the shared
+     * pool gets one here. Each run closes connections past their time-to-live and those idle longer
+     * than {@code client.http.pool.idle-eviction}.
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public IdleConnectionEvictor secureConnectionEvictor(
+            PoolingHttpClientConnectionManager secureConnectionManager,
+            @Value("${client.http.pool.idle-eviction:30s}") Duration idleEviction) {
+        return new IdleConnectionEvictor(secureConnectionManager, TimeValue.of(idleEviction));
+    }
+
+    // Exports httpcomponents.httpclient.pool.* gauges (leased, available, pending, max)
+    @Bean
+    public MeterBinder secureConnectionPoolMetrics(PoolingHttpClientConnectionManager secureConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(secureConnectionManager, "secure-api");
+    }
+
+    /**
+     * Shared by the classic and async clients: requests that failed with an I/O error are resent up
+     * to {@code client.http.retry.max-retries} times if they are idempotent or carry an
+     * {@code Idempotency-Key}, as {@code POST /api/secure/message} does.
+     */
+    @Bean
+    public IdempotencyKeyRetryStrategy secureRetryStrategy(
+            @Value("${client.http.retry.max-retries:1}") int maxRetries,
+            @Value("${client.http.retry.interval:1s}") Duration interval) {
+        return new IdempotencyKeyRetryStrategy(maxRetries, TimeValue.of(interval));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient secureHttpClient(PoolingHttpClientConnectionManager secureConnectionManager,
+                                                IdempotencyKeyRetryStrategy secureRetryStrategy) {
+        // The connection manager is a bean of its own, so the client must not close it on shutdown
+        return HttpClients.custom()
+                .setConnectionManager(secureConnectionManager)
+                .setConnectionManagerShared(true)
+                .setRetryStrategy(secureRetryStrategy)
+                .build();
+    }
+}
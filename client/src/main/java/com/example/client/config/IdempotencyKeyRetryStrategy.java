@@ -0,0 +1,27 @@
+package com.example.client.config;
+
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * HttpClient's default retry policy, extended to requests that carry an {@value #HEADER} header.
+ * <p>
+ * A POST that fails with an I/O error (a reset TLS connection, a stale pooled connection the server
+ * already closed) is normally not retried, because the server may have processed it. With a key the
+ * server recognizes the repeat and replays its first response, so the request is as safe to resend
+ * as a GET and is retried on the same terms.
+ */
+public class IdempotencyKeyRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public IdempotencyKeyRetryStrategy(int maxRetries, TimeValue retryInterval) {
+        super(maxRetries, retryInterval);
+    }
+
+    @Override
+    protected boolean handleAsIdempotent(HttpRequest request) {
+        return super.handleAsIdempotent(request) || request.containsHeader(HEADER);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.client.config;
+
+import javax.net.ssl.CertPathTrustManagerParameters;
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertificateException;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trust manager for the API clients that also checks the server chain for revocation, without a
+ * network round trip on the handshake path in the usual case:
+ * <ul>
+ *     <li>OCSP responses stapled by the server are used first (the JDK client asks for them by default);</li>
+ *     <li>otherwise the {@link CrlCache}'s CRLs, downloaded in the background;</li>
+ *     <li>only then an OCSP request to {@code ocspResponder}, or the responder named in the certificate.</li>
+ * </ul>
+ * The JDK's revocation checker tries either OCSP or CRLs first and the other only when that yields
+ * no answer, and its OCSP step goes to the network for certificates without a stapled response. So
+ * the order is chosen per handshake: OCSP first when the server stapled responses, CRLs first when
+ * it did not and CRL locations are configured.
+ * <p>
+ * A chain that passed is remembered per host until {@code cacheTtl}, the chain's earliest expiry or
+ * the CRLs' next update, whichever comes first, so reconnects that cannot resume their TLS session
+ * skip the revocation check too. New CRLs drop every remembered result.
+ */
+public class RevocationCheckingTrustManager extends X509ExtendedTrustManager {
+
+    // Servers a client talks to are few; past this many the cache simply starts over
+    private static final int MAX_ENTRIES = 1024;
+
+    // preferCrls is null when no CRL locations are configured
+    private record Delegate(long generation, X509ExtendedTrustManager preferOcsp,
+                            X509ExtendedTrustManager preferCrls) {
+    }
+
+    private final KeyStore trustStore;
+    private final CrlCache crlCache;
+    private final Set<PKIXRevocationChecker.Option> options;
+    private final URI ocspResponder;
+    private final long cacheTtlMillis;
+    private final ConcurrentHashMap<String, Long> validated = new ConcurrentHashMap<>();
+
+    private volatile Delegate delegate;
+
+    public RevocationCheckingTrustManager(KeyStore trustStore, CrlCache crlCache, boolean onlyEndEntity,
+                                          boolean softFail, URI ocspResponder, Duration cacheTtl)
+            throws GeneralSecurityException {
+        this.trustStore = trustStore;
+        this.crlCache = crlCache;
+        this.options = EnumSet.noneOf(PKIXRevocationChecker.Option.class);
+        if (onlyEndEntity) {
+            options.add(PKIXRevocationChecker.Option.ONLY_END_ENTITY);
+        }
+        if (softFail) {
+            options.add(PKIXRevocationChecker.Option.SOFT_FAIL);
+        }
+        this.ocspResponder = ocspResponder;
+        this.cacheTtlMillis = Math.max(0, cacheTtl.toMillis());
+        this.delegate = delegateFor(crlCache.snapshot());
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        SSLSession session = socket instanceof SSLSocket sslSocket ? sslSocket.getHandshakeSession() : null;
+        String key = keyOf(chain, authType, session);
+        CrlCache.Snapshot crls = crlCache.snapshot();
+        if (!isValidated(key, crls)) {
+            delegate(crls, session).checkServerTrusted(chain, authType, socket);
+            validated(key, chain, crls);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        SSLSession session = engine != null ? engine.getHandshakeSession() : null;
+        String key = keyOf(chain, authType, session);
+        CrlCache.Snapshot crls = crlCache.snapshot();
+        if (!isValidated(key, crls)) {
+            delegate(crls, session).checkServerTrusted(chain, authType, engine);
+            validated(key, chain, crls);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate(crlCache.snapshot(), null).checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        delegate(crlCache.snapshot(), null).checkClientTrusted(chain, authType, socket);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        delegate(crlCache.snapshot(), null).checkClientTrusted(chain, authType, engine);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate(crlCache.snapshot(), null).checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.preferOcsp().getAcceptedIssuers();
+    }
+
+    private boolean isValidated(String key, CrlCache.Snapshot crls) {
+        Long expiresAt = key != null ? validated.get(crls.generation() + key) : null;
+        return expiresAt != null && System.currentTimeMillis() < expiresAt;
+    }
+
+    private void validated(String key, X509Certificate[] chain, CrlCache.Snapshot crls) {
+        if (key == null || cacheTtlMillis == 0) {
+            return;
+        }
+        long expiresAt = Math.min(System.currentTimeMillis() + cacheTtlMillis, crls.nextUpdate());
+        for (X509Certificate certificate : chain) {
+            expiresAt = Math.min(expiresAt, certificate.getNotAfter().getTime());
+        }
+        if (validated.size() >= MAX_ENTRIES) {
+            validated.clear();
+        }
+        validated.put(crls.generation() + key, expiresAt);
+    }
+
+    // Rebuilt when the CRLs change; results remembered under the previous generation are dropped with it
+    private X509ExtendedTrustManager delegate(CrlCache.Snapshot crls, SSLSession handshakeSession)
+            throws CertificateException {
+        Delegate current = delegate;
+        if (current.generation() != crls.generation()) {
+            try {
+                current = delegateFor(crls);
+            } catch (GeneralSecurityException e) {
+                throw new CertificateException("Cannot set up revocation checking", e);
+            }
+            delegate = current;
+            validated.clear();
+        }
+        boolean stapled = handshakeSession instanceof ExtendedSSLSession session
+                && !session.getStatusResponses().isEmpty();
+        return stapled || current.preferCrls() == null ? current.preferOcsp() : current.preferCrls();
+    }
+
+    private Delegate delegateFor(CrlCache.Snapshot crls) throws GeneralSecurityException {
+        return new Delegate(crls.generation(), trustManagerFor(crls, options),
+                crlCache.hasLocations() ? trustManagerFor(crls, withPreferCrls(options)) : null);
+    }
+
+    private static Set<PKIXRevocationChecker.Option> withPreferCrls(Set<PKIXRevocationChecker.Option> options) {
+        Set<PKIXRevocationChecker.Option> preferCrls = EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS);
+        preferCrls.addAll(options);
+        return preferCrls;
+    }
+
+    private X509ExtendedTrustManager trustManagerFor(CrlCache.Snapshot crls, Set<PKIXRevocationChecker.Option> options)
+            throws GeneralSecurityException {
+        PKIXRevocationChecker revocationChecker =
+                (PKIXRevocationChecker) CertPathBuilder.getInstance("PKIX").getRevocationChecker();
+        revocationChecker.setOptions(options);
+        revocationChecker.setOcspResponder(ocspResponder);
+        PKIXBuilderParameters parameters = new PKIXBuilderParameters(trustStore, new X509CertSelector());
+        parameters.addCertStore(crls.certStore());
+        parameters.setRevocationEnabled(true);
+        parameters.addCertPathChecker(revocationChecker);
+
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance("PKIX");
+        trustManagerFactory.init(new CertPathTrustManagerParameters(parameters));
+        for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+            if (trustManager instanceof X509ExtendedTrustManager x509TrustManager) {
+                return x509TrustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509ExtendedTrustManager in the PKIX TrustManagerFactory");
+    }
+
+    private static String keyOf(X509Certificate[] chain, String authType, SSLSession handshakeSession) {
+        if (chain == null || chain.length == 0) {
+            return null;
+        }
+        try {
+            byte[] fingerprint = MessageDigest.getInstance("SHA-256").digest(chain[0].getEncoded());
+            String host = handshakeSession != null ? handshakeSession.getPeerHost() : null;
+            return ':' + host + ':' + authType + ':' + HexFormat.of().formatHex(fingerprint);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+}
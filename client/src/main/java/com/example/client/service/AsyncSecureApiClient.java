@@ -0,0 +1,111 @@
+package com.example.client.service;
+
+import com.example.client.config.IdempotencyKeyRetryStrategy;
+import com.example.common.dto.Message;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking counterpart of {@link SecureApiClient}. No thread waits for a response; futures
+ * complete on the HttpClient I/O reactor threads, so callers should not block inside callbacks.
+ */
+@Service
+public class AsyncSecureApiClient {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final JavaType messageType;
+    private final JavaType healthType;
+    private final String baseUrl;
+
+    public AsyncSecureApiClient(CloseableHttpAsyncClient secureAsyncHttpClient,
+                                ObjectMapper objectMapper,
+                                @Value("${client.api.base-url:https://localhost:8443}") String baseUrl) {
+        this.httpClient = secureAsyncHttpClient;
+        this.objectMapper = objectMapper;
+        this.messageType = objectMapper.constructType(Message.class);
+        this.healthType = objectMapper.constructType(new TypeReference<Map<String, Object>>() { });
+        this.baseUrl = baseUrl;
+    }
+
+    public CompletableFuture<Message> getSecureMessage() {
+        SimpleHttpRequest request = SimpleRequestBuilder.get(baseUrl + "/api/secure/message").build();
+        return execute(request).thenApply(body -> read(body, messageType));
+    }
+
+    public CompletableFuture<Message> postSecureMessage(String content) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new Message(content, "Client"));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        SimpleHttpRequest request = SimpleRequestBuilder.post(baseUrl + "/api/secure/message")
+                .setBody(body, ContentType.APPLICATION_JSON)
+                .setHeader(IdempotencyKeyRetryStrategy.HEADER, UUID.randomUUID().toString())
+                .build();
+        return execute(request).thenApply(responseBody -> read(responseBody, messageType));
+    }
+
+    public CompletableFuture<Map<String, Object>> getHealth() {
+        SimpleHttpRequest request = SimpleRequestBuilder.get(baseUrl + "/api/secure/health").build();
+        return execute(request).thenApply(body -> read(body, healthType));
+    }
+
+    private CompletableFuture<byte[]> execute(SimpleHttpRequest request) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                byte[] body = response.getBodyBytes() != null ? response.getBodyBytes() : new byte[0];
+                if (response.getCode() >= 400) {
+                    // Same exception hierarchy RestTemplate uses for error statuses
+                    result.completeExceptionally(new RestClientResponseException(
+                            request.getMethod() + " " + request.getRequestUri() + " failed",
+                            HttpStatusCode.valueOf(response.getCode()), response.getReasonPhrase(),
+                            new HttpHeaders(), body, StandardCharsets.UTF_8));
+                } else {
+                    result.complete(body);
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private <T> T read(byte[] body, JavaType type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.client.service;
+
+import com.example.common.dto.BatchItemResult;
+import com.example.common.dto.Message;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces individually submitted messages into batches. A batch is sent as soon as it holds
+ * {@code maxSize} messages, or {@code linger} after its first message arrived, whichever comes first.
+ * Each result carries the index its caller submitted the message under, not its position in the
+ * coalesced batch.
+ * <p>
+ * Batches are sent on threads of the batcher's own, never on a caller's executor: callers typically
+ * block on their results, and a bounded executor shared with them could leave no thread to send the
+ * batch that would unblock them. Handing a batch off never waits.
+ */
+class MessageBatcher implements AutoCloseable {
+
+    private record Pending(Message message, int index, CompletableFuture<BatchItemResult> result) {
+    }
+
+    private final Function<List<Message>, List<BatchItemResult>> sender;
+    private final int maxSize;
+    private final Duration linger;
+    private final ExecutorService sendExecutor;
+    private final ScheduledExecutorService lingerTimer;
+
+    private final Object lock = new Object();
+    private List<Pending> buffer = new ArrayList<>();
+    private ScheduledFuture<?> pendingFlush;
+    private boolean closed;
+
+    MessageBatcher(Function<List<Message>, List<BatchItemResult>> sender, int maxSize, Duration linger) {
+        this.sender = sender;
+        this.maxSize = maxSize;
+        this.linger = linger;
+        // Idle threads are reclaimed after a minute; concurrent batches are bounded by the connection pool
+        this.sendExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "message-batcher-send");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "message-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @throws RejectedExecutionException once the batcher is closed
+     */
+    CompletableFuture<BatchItemResult> submit(Message message, int index) {
+        Pending pending = new Pending(message, index, new CompletableFuture<>());
+        List<Pending> full = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new RejectedExecutionException("Message batcher is closed");
+            }
+            buffer.add(pending);
+            if (buffer.size() >= maxSize || linger.isZero()) {
+                full = drain();
+            } else if (buffer.size() == 1) {
+                pendingFlush = lingerTimer.schedule(this::lingerExpired, linger.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            List<Pending> batch = full;
+            sendExecutor.execute(() -> send(batch));
+        }
+        return pending.result();
+    }
+
+    @Override
+    public void close() {
+        List<Pending> batch;
+        synchronized (lock) {
+            closed = true;
+            batch = drain();
+        }
+        lingerTimer.shutdownNow();
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        // Batches already handed off finish sending
+        sendExecutor.shutdown();
+    }
+
+    private void lingerExpired() {
+        List<Pending> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            sendExecutor.execute(() -> send(batch));
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = buffer;
+        buffer = new ArrayList<>();
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        try {
+            List<BatchItemResult> results = sender.apply(batch.stream().map(Pending::message).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                if (results != null && i < results.size()) {
+                    BatchItemResult result = results.get(i);
+                    pending.result().complete(new BatchItemResult(pending.index(), result.accepted(),
+                            result.message(), result.error()));
+                } else {
+                    pending.result().complete(BatchItemResult.rejected(pending.index(), "No result returned for item"));
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+}
@@ -1,102 +1,167 @@
 package com.example.client.service;
 
+import com.example.client.config.IdempotencyKeyRetryStrategy;
+import com.example.common.dto.BatchItemResult;
 import com.example.common.dto.Message;
+import com.example.common.dto.MessagePage;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManagerFactory;
-import java.security.KeyStore;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
-public class SecureApiClient {
+public class SecureApiClient implements DisposableBean {
+
+    private static final ParameterizedTypeReference<List<BatchItemResult>> BATCH_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
 
     private final RestTemplate restTemplate;
+    private final CloseableHttpClient httpClient;
+    private final ObjectReader messageReader;
+    private final AsyncTaskExecutor fanOutExecutor;
     private final String baseUrl;
+    private final MediaType wireFormat;
+    private final MessageBatcher batcher;
 
     public SecureApiClient(RestTemplateBuilder builder,
+                           CloseableHttpClient secureHttpClient,
+                           AsyncTaskExecutor secureApiFanOutExecutor,
+                           ObjectMapper objectMapper,
                            @Value("${client.api.base-url:https://localhost:8443}") String baseUrl,
-                           @Value("${client.ssl.trust-store:classpath:client-truststore.p12}") Resource trustStore,
-                           @Value("${client.ssl.trust-store-password:truststorepass}") String trustStorePassword) {
+                           @Value("${client.api.wire-format:application/json}") MediaType wireFormat,
+                           @Value("${client.api.batch.max-size:100}") int batchMaxSize,
+                           @Value("${client.api.batch.linger:5ms}") Duration batchLinger) {
+        this.httpClient = secureHttpClient;
+        this.messageReader = objectMapper.readerFor(Message.class);
+        this.fanOutExecutor = secureApiFanOutExecutor;
         this.baseUrl = baseUrl;
-
-
-// Debug: Test trust store loading
-        try {
-            System.out.println("=== DEBUG: Testing trust store loading ===");
-            System.out.println("Trust store resource: " + trustStore);
-            System.out.println("Trust store exists: " + trustStore.exists());
-
-            KeyStore testKeyStore = KeyStore.getInstance("PKCS12");
-            try (var inputStream = trustStore.getInputStream()) {
-                testKeyStore.load(inputStream, trustStorePassword.toCharArray());
-                System.out.println("Trust store loaded successfully!");
-                System.out.println("Trust store size: " + testKeyStore.size());
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading trust store: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-
-
-
+        this.wireFormat = wireFormat;
+        this.batcher = new MessageBatcher(this::postBatch, batchMaxSize, batchLinger);
+        // The pooled client is shared with ConnectionPoolWarmer, so requests pick up pre-warmed connections
         this.restTemplate = builder
-                .requestFactory(() -> {
-                    try {
-                        return createSecureRequestFactory(trustStore, trustStorePassword);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to create secure request factory", e);
-                    }
-                })
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(secureHttpClient))
                 .build();
     }
 
-    private org.springframework.http.client.ClientHttpRequestFactory createSecureRequestFactory(
-            Resource trustStore, String trustStorePassword) throws Exception {
+    public Message getSecureMessage() {
+        return restTemplate.exchange(
+                baseUrl + "/api/secure/message",
+                HttpMethod.GET,
+                new HttpEntity<>(messageHeaders()),
+                Message.class
+        ).getBody();
+    }
 
-        // Load trust store
-        KeyStore keyStore = KeyStore.getInstance("PKCS12");
-        try (var inputStream = trustStore.getInputStream()) {
-            keyStore.load(inputStream, trustStorePassword.toCharArray());
-        }
+    /**
+     * Issues {@code count} GET requests concurrently on the fan-out executor and waits for all of them.
+     */
+    public List<Message> getSecureMessages(int count) {
+        List<CompletableFuture<Message>> calls = IntStream.range(0, count)
+                .mapToObj(i -> fanOutExecutor.submitCompletable(this::getSecureMessage))
+                .toList();
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
 
-        // Create trust manager factory
-        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
-                TrustManagerFactory.getDefaultAlgorithm());
-        trustManagerFactory.init(keyStore);
-
-        // Create SSL context
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
-
-        // Create HTTP client with custom SSL context using Apache HttpClient 5
-        var httpClient = org.apache.hc.client5.http.impl.classic.HttpClients.custom()
-                .setConnectionManager(org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder.create()
-                        .setSSLSocketFactory(org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder.create()
-                                .setSslContext(sslContext)
-                                .build())
-                        .build())
-                .build();
+    /**
+     * Opens the NDJSON feed of the first {@code count} stored messages and parses them one at a time
+     * as the stream is consumed. The stream holds a pooled connection until it is exhausted or closed,
+     * so use it in a try-with-resources block.
+     */
+    public Stream<Message> streamSecureMessages(long count) {
+        return openMessageStream(baseUrl + "/api/secure/messages/stream?count=" + count);
+    }
 
-        return new org.springframework.http.client.HttpComponentsClientHttpRequestFactory(httpClient);
+    /**
+     * Like {@link #streamSecureMessages(long)}, but for every stored message, up to the server's
+     * {@code server.api.stream.max-records}.
+     */
+    public Stream<Message> streamSecureMessages() {
+        return openMessageStream(baseUrl + "/api/secure/messages/stream");
     }
 
-    public Message getSecureMessage() {
-        return restTemplate.getForObject(baseUrl + "/api/secure/message", Message.class);
+    private Stream<Message> openMessageStream(String uri) {
+        HttpGet request = new HttpGet(uri);
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE);
+        ClassicHttpResponse response = null;
+        try {
+            response = httpClient.executeOpen(null, request, null);
+            if (response.getCode() >= 400) {
+                byte[] body = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : new byte[0];
+                throw new RestClientResponseException("GET " + uri + " failed",
+                        HttpStatusCode.valueOf(response.getCode()), response.getReasonPhrase(),
+                        new HttpHeaders(), body, StandardCharsets.UTF_8);
+            }
+            MappingIterator<Message> records = messageReader.readValues(response.getEntity().getContent());
+            ClassicHttpResponse open = response;
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED), false)
+                    .onClose(() -> {
+                        // Closing the entity would drain the rest of the feed; abort the exchange instead.
+                        // Once the feed was read to the end the connection is already back in the pool.
+                        request.cancel();
+                        closeQuietly(open);
+                    });
+        } catch (IOException e) {
+            request.cancel();
+            closeQuietly(response);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(response);
+            throw e;
+        }
     }
 
+    private static void closeQuietly(ClassicHttpResponse response) {
+        if (response == null) {
+            return;
+        }
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // The exchange is being abandoned, any error closing it is irrelevant
+        }
+    }
+
+    /**
+     * Posts one message under a fresh {@code Idempotency-Key}, so a resend after a dropped
+     * connection (by the HTTP client's retry policy) is answered with the original response instead
+     * of storing the message twice.
+     */
     public Message postSecureMessage(String content) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpHeaders headers = messageHeaders();
+        headers.setContentType(wireFormat);
+        headers.set(IdempotencyKeyRetryStrategy.HEADER, UUID.randomUUID().toString());
 
         Message message = new Message(content, "Client");
         HttpEntity<Message> request = new HttpEntity<>(message, headers);
@@ -109,8 +174,58 @@ public class SecureApiClient {
         ).getBody();
     }
 
+    /**
+     * Posts the messages through the shared batcher, so they may travel together with messages
+     * submitted by other callers; blocks until every item has a result. Result indexes refer to
+     * positions in {@code contents}.
+     */
+    public List<BatchItemResult> postSecureMessages(List<String> contents) {
+        List<CompletableFuture<BatchItemResult>> results = IntStream.range(0, contents.size())
+                .mapToObj(i -> batcher.submit(new Message(contents.get(i), "Client"), i))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<BatchItemResult> postBatch(List<Message> messages) {
+        HttpHeaders headers = messageHeaders();
+        headers.setContentType(wireFormat);
+
+        return restTemplate.exchange(
+                baseUrl + "/api/secure/messages",
+                HttpMethod.POST,
+                new HttpEntity<>(messages, headers),
+                BATCH_RESULTS
+        ).getBody();
+    }
+
+    /**
+     * Reads up to {@code limit} stored messages starting at {@code fromOffset}; continue from the
+     * returned page's {@code nextOffset}.
+     */
+    public MessagePage getStoredMessages(long fromOffset, int limit) {
+        return restTemplate.exchange(
+                baseUrl + "/api/secure/messages?fromOffset={fromOffset}&limit={limit}",
+                HttpMethod.GET,
+                new HttpEntity<>(messageHeaders()),
+                MessagePage.class,
+                fromOffset, limit
+        ).getBody();
+    }
+
+    // Asks for client.api.wire-format, so application/cbor switches both directions to the binary encoding
+    private HttpHeaders messageHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(wireFormat));
+        return headers;
+    }
+
     @SuppressWarnings("unchecked")
     public Map<String, Object> getHealth() {
         return restTemplate.getForObject(baseUrl + "/api/secure/health", Map.class);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+}
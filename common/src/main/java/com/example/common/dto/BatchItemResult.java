@@ -0,0 +1,23 @@
+package com.example.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one {@link Message} in a batch, in request order.
+ *
+ * @param index    position of the item in the submitted batch
+ * @param accepted whether the item was processed
+ * @param message  the server's response message when accepted
+ * @param error    why the item was rejected otherwise
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, boolean accepted, Message message, String error) {
+
+    public static BatchItemResult accepted(int index, Message message) {
+        return new BatchItemResult(index, true, message, null);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, false, null, error);
+    }
+}
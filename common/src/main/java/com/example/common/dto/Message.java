@@ -1,50 +1,95 @@
 package com.example.common.dto;
 
+import com.example.common.json.MessageJsonDeserializer;
+import com.example.common.json.MessageJsonSerializer;
+import com.example.common.json.TimestampCodec;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+/**
+ * The timestamp is held as a primitive count of microseconds (see {@link TimestampCodec}), the form
+ * the message log and the serializers work with; {@link #getTimestamp()} builds the
+ * {@link LocalDateTime} view on first use, so messages that are only received, stored or serialized
+ * never create one. Precision below a microsecond is dropped. Messages are immutable, so the hash
+ * code is computed once and cached as well.
+ */
+@JsonSerialize(using = MessageJsonSerializer.class)
+@JsonDeserialize(using = MessageJsonDeserializer.class)
 public class Message {
     private final String content;
     private final String sender;
-    private final LocalDateTime timestamp;
+    private final long timestampMicros;
+    // Racy single-check: every thread computes an equal value, so a repeated conversion is harmless
+    private LocalDateTime timestamp;
+    // Same idiom; 0 means not yet computed (a real hash of 0 is simply recomputed)
+    private int hash;
 
     @JsonCreator
     public Message(@JsonProperty("content") String content,
                    @JsonProperty("sender") String sender,
                    @JsonProperty("timestamp") LocalDateTime timestamp) {
-        this.content = content;
-        this.sender = sender;
-        this.timestamp = timestamp != null ? timestamp : LocalDateTime.now();
+        this(content, sender, timestamp != null ? TimestampCodec.toEpochMicros(timestamp) : TimestampCodec.nowEpochMicros());
     }
 
     public Message(String content, String sender) {
-        this(content, sender, LocalDateTime.now());
+        this(content, sender, TimestampCodec.nowEpochMicros());
+    }
+
+    public Message(String content, String sender, long timestampMicros) {
+        this.content = content;
+        this.sender = sender;
+        this.timestampMicros = timestampMicros;
     }
 
     public String getContent() { return content; }
     public String getSender() { return sender; }
-    public LocalDateTime getTimestamp() { return timestamp; }
+    @JsonIgnore
+    public long getTimestampMicros() { return timestampMicros; }
+
+    public LocalDateTime getTimestamp() {
+        LocalDateTime view = timestamp;
+        if (view == null) {
+            view = TimestampCodec.toLocalDateTime(timestampMicros);
+            timestamp = view;
+        }
+        return view;
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Message message = (Message) o;
-        return Objects.equals(content, message.content) &&
-                Objects.equals(sender, message.sender) &&
-                Objects.equals(timestamp, message.timestamp);
+        return timestampMicros == message.timestampMicros &&
+                Objects.equals(content, message.content) &&
+                Objects.equals(sender, message.sender);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(content, sender, timestamp);
+        int h = hash;
+        if (h == 0) {
+            // Same value as Objects.hash(content, sender, timestampMicros), without the varargs array
+            h = 31 + Objects.hashCode(content);
+            h = 31 * h + Objects.hashCode(sender);
+            h = 31 * h + Long.hashCode(timestampMicros);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
     public String toString() {
-        return String.format("Message{content='%s', sender='%s', timestamp=%s}",
-                content, sender, timestamp);
+        return new StringBuilder(64 + (content != null ? content.length() : 4))
+                .append("Message{content='").append(content)
+                .append("', sender='").append(sender)
+                .append("', timestamp=").append(getTimestamp())
+                .append('}')
+                .toString();
     }
-}
\ No newline at end of file
+}
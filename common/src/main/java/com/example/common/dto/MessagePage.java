@@ -0,0 +1,13 @@
+package com.example.common.dto;
+
+import java.util.List;
+
+/**
+ * A page of stored messages read back from the server's message log.
+ *
+ * @param fromOffset offset of the first message in this page
+ * @param nextOffset offset to request the following page from; equals {@code fromOffset} when nothing newer is stored
+ * @param messages   the messages in offset order
+ */
+public record MessagePage(long fromOffset, long nextOffset, List<Message> messages) {
+}
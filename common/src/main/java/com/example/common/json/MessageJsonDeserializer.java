@@ -0,0 +1,118 @@
+package com.example.common.json;
+
+import com.example.common.dto.Message;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Reads a {@link Message} token by token from the {@link JsonParser}. Timestamps are parsed straight
+ * into epoch microseconds from the parser's character buffer by {@link TimestampCodec}, without an
+ * intermediate {@code String} or {@link LocalDateTime}. A plain microsecond count (the
+ * {@link MessageJsonSerializer} binary form) and the JavaTimeModule's {@code [y, M, d, H, m, s, nanos]}
+ * array are accepted as well. Unknown fields are skipped, matching the lenient binding the
+ * applications' ObjectMappers are configured with.
+ */
+public class MessageJsonDeserializer extends JsonDeserializer<Message> {
+
+    @Override
+    public Message deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (Message) ctxt.handleUnexpectedToken(Message.class, p);
+        }
+        String content = null;
+        String sender = null;
+        long timestampMicros = 0;
+        boolean hasTimestamp = false;
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            // Parser field names are interned, so the switch hashes a cached value
+            String name = p.currentName();
+            p.nextToken();
+            switch (name) {
+                case "content" -> content = readString(p, ctxt);
+                case "sender" -> sender = readString(p, ctxt);
+                case "timestamp" -> {
+                    if (p.currentToken() != JsonToken.VALUE_NULL) {
+                        timestampMicros = readTimestamp(p, ctxt);
+                        hasTimestamp = true;
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return hasTimestamp ? new Message(content, sender, timestampMicros) : new Message(content, sender);
+    }
+
+    @Override
+    public Class<?> handledType() {
+        return Message.class;
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token.isStructStart()) {
+            return (String) ctxt.handleUnexpectedToken(String.class, p);
+        }
+        return p.getValueAsString();
+    }
+
+    private static long readTimestamp(JsonParser p, DeserializationContext ctxt) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_STRING:
+                try {
+                    return TimestampCodec.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                } catch (DateTimeException | ArithmeticException e) {
+                    return toMicros(ctxt.handleWeirdStringValue(LocalDateTime.class, p.getText(),
+                            "Invalid timestamp: %s", e.getMessage()));
+                }
+            case VALUE_NUMBER_INT:
+                return p.getLongValue();
+            case START_ARRAY:
+                return readTimestampArray(p, ctxt);
+            default:
+                return toMicros(ctxt.handleUnexpectedToken(LocalDateTime.class, p));
+        }
+    }
+
+    // [year, month, day, hour, minute(, second(, fraction))] as written by the JavaTimeModule with WRITE_DATES_AS_TIMESTAMPS
+    private static long readTimestampArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        int[] fields = new int[7];
+        int count = 0;
+        while (p.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+            if (count == fields.length) {
+                return toMicros(ctxt.handleUnexpectedToken(LocalDateTime.class, p));
+            }
+            fields[count++] = p.getIntValue();
+        }
+        if (p.currentToken() != JsonToken.END_ARRAY || count < 5) {
+            return toMicros(ctxt.handleUnexpectedToken(LocalDateTime.class, p));
+        }
+        int nano = fields[6];
+        if (count == 7 && !ctxt.isEnabled(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)) {
+            nano *= 1_000_000;
+        }
+        try {
+            return TimestampCodec.toEpochMicros(
+                    LocalDateTime.of(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], nano));
+        } catch (DateTimeException | ArithmeticException e) {
+            return toMicros(ctxt.reportInputMismatch(LocalDateTime.class, "Invalid timestamp: %s", e.getMessage()));
+        }
+    }
+
+    // Value substituted by a DeserializationProblemHandler, if one is registered; null means now, as for a missing timestamp
+    private static long toMicros(Object timestamp) {
+        return timestamp != null ? TimestampCodec.toEpochMicros((LocalDateTime) timestamp) : TimestampCodec.nowEpochMicros();
+    }
+}
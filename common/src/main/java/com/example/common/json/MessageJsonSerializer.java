@@ -0,0 +1,51 @@
+package com.example.common.json;
+
+import com.example.common.dto.Message;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Message} straight to the {@link JsonGenerator}, with field names encoded once and
+ * the timestamp formatted by {@link TimestampCodec} from the message's epoch microseconds. JSON
+ * output matches what bean serialization with the JavaTimeModule produced: {@code content},
+ * {@code sender}, {@code timestamp} as ISO text. When {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS}
+ * is enabled (as for CBOR) the timestamp is written as its single microsecond count instead of the
+ * JavaTimeModule's field array; {@link MessageJsonDeserializer} reads both.
+ * <p>
+ * The timestamp is formatted into a per-thread buffer, which the generator copies before returning,
+ * so serializing a message allocates nothing of its own.
+ */
+public class MessageJsonSerializer extends JsonSerializer<Message> {
+
+    static final SerializableString CONTENT = new SerializedString("content");
+    static final SerializableString SENDER = new SerializedString("sender");
+    static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+
+    @Override
+    public void serialize(Message message, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(message);
+        gen.writeFieldName(CONTENT);
+        gen.writeString(message.getContent());
+        gen.writeFieldName(SENDER);
+        gen.writeString(message.getSender());
+        gen.writeFieldName(TIMESTAMP);
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            gen.writeNumber(message.getTimestampMicros());
+        } else {
+            char[] buffer = TimestampCodec.threadBuffer();
+            gen.writeString(buffer, 0, TimestampCodec.format(message.getTimestampMicros(), buffer));
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public Class<Message> handledType() {
+        return Message.class;
+    }
+}
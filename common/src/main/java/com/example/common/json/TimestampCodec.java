@@ -0,0 +1,202 @@
+package com.example.common.json;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Conversions between {@code Message} timestamps and their ISO-8601 local date-time text. A timestamp
+ * is a local date-time counted in microseconds from 1970-01-01T00:00 as if it were UTC, the same
+ * value the message log stores; conversions without {@link DateTimeFormatter} or intermediate
+ * {@code java.time} objects. Text output is identical to {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}
+ * (seconds always present, fraction without trailing zeros); parsing takes the same shape and
+ * falls back to {@link LocalDateTime#parse} for anything else, such as years beyond four digits.
+ * Digits below a microsecond are dropped.
+ */
+public final class TimestampCodec {
+
+    /** Longest text {@link #format} writes, for six-digit years with a sign. */
+    public static final int MAX_LENGTH = 29;
+
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final int SECONDS_PER_DAY = 86_400;
+    // Days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_CYCLE = 146_097;
+
+    // Captured once, like Clock.systemDefaultZone(); LocalDateTime.now() would look it up per call
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * Equivalent to {@code toEpochMicros(LocalDateTime.now())} without creating the {@link LocalDateTime}.
+     */
+    public static long nowEpochMicros() {
+        Instant now = Instant.now();
+        long localSecond = now.getEpochSecond() + ZONE.getRules().getOffset(now).getTotalSeconds();
+        return localSecond * MICROS_PER_SECOND + now.getNano() / 1_000;
+    }
+
+    /**
+     * @throws ArithmeticException for dates more than about 292,000 years from the epoch
+     */
+    public static long toEpochMicros(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), MICROS_PER_SECOND),
+                timestamp.getNano() / 1_000);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMicros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, MICROS_PER_SECOND),
+                (int) Math.floorMod(epochMicros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * A {@link #MAX_LENGTH} buffer for {@link #format} owned by the calling thread, so formatting on a
+     * hot path allocates nothing; its contents are only valid until the thread formats again.
+     */
+    public static char[] threadBuffer() {
+        return BUFFER.get();
+    }
+
+    /**
+     * Writes the timestamp into {@code buffer} from index 0; the buffer must hold at least
+     * {@link #MAX_LENGTH} characters.
+     *
+     * @return the number of characters written
+     */
+    public static int format(long epochMicros, char[] buffer) {
+        long epochSecond = Math.floorDiv(epochMicros, MICROS_PER_SECOND);
+        int micros = (int) Math.floorMod(epochMicros, MICROS_PER_SECOND);
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil date from a day count, years starting in March (H. Hinnant, "chrono-compatible date algorithms")
+        long days = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(days, DAYS_PER_CYCLE);
+        long dayOfEra = days - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            String text = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(toLocalDateTime(epochMicros));
+            text.getChars(0, text.length(), buffer, 0);
+            return text.length();
+        }
+
+        writeDigits(buffer, 0, (int) year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, month, 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, day, 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, secondOfDay / 3600, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, secondOfDay % 60, 2);
+        if (micros == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        writeDigits(buffer, 20, micros, 6);
+        int end = 26;
+        while (buffer[end - 1] == '0') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.f...]]} from the given characters into epoch microseconds.
+     *
+     * @throws java.time.DateTimeException if the text is not a valid local date-time
+     */
+    public static long parse(char[] text, int offset, int length) {
+        if (length < 16 || length > 29
+                || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':') {
+            return parseFallback(text, offset, length);
+        }
+        int year = readDigits(text, offset, 4);
+        int month = readDigits(text, offset + 5, 2);
+        int day = readDigits(text, offset + 8, 2);
+        int hour = readDigits(text, offset + 11, 2);
+        int minute = readDigits(text, offset + 14, 2);
+        int second = 0;
+        int micros = 0;
+        if (length > 16) {
+            if (length < 19 || text[offset + 16] != ':') {
+                return parseFallback(text, offset, length);
+            }
+            second = readDigits(text, offset + 17, 2);
+            if (length > 19) {
+                int digits = length - 20;
+                if (text[offset + 19] != '.' || digits == 0) {
+                    return parseFallback(text, offset, length);
+                }
+                // Nine digits at most; anything below a microsecond is checked but not kept
+                int fraction = readDigits(text, offset + 20, digits);
+                if (fraction < 0) {
+                    return parseFallback(text, offset, length);
+                }
+                for (int i = digits; i < 6; i++) {
+                    fraction *= 10;
+                }
+                for (int i = 6; i < digits; i++) {
+                    fraction /= 10;
+                }
+                micros = fraction;
+            }
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return parseFallback(text, offset, length);
+        }
+
+        // Day count from a civil date, the inverse of the conversion in format()
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(marchYear, 400);
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = (long) era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+
+        long epochSecond = epochDay * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+        return epochSecond * MICROS_PER_SECOND + micros;
+    }
+
+    private static long parseFallback(char[] text, int offset, int length) {
+        return toEpochMicros(LocalDateTime.parse(new String(text, offset, length)));
+    }
+
+    private static void writeDigits(char[] buffer, int position, int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // -1 if any character is not a digit
+    private static int readDigits(char[] text, int position, int count) {
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
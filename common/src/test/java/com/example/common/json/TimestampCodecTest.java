@@ -0,0 +1,147 @@
+package com.example.common.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks {@link TimestampCodec} against {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which is what
+ * Jackson's {@code LocalDateTimeSerializer} and {@code LocalDateTimeDeserializer} use for text.
+ */
+class TimestampCodecTest {
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final List<LocalDateTime> BOUNDARIES = List.of(
+            LocalDateTime.of(1970, 1, 1, 0, 0),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(0, 1, 1, 0, 0),
+            LocalDateTime.of(0, 2, 29, 12, 0),
+            LocalDateTime.of(0, 3, 1, 0, 0),
+            LocalDateTime.of(1, 1, 1, 0, 0, 0, 1_000),
+            LocalDateTime.of(1600, 2, 29, 0, 0),
+            LocalDateTime.of(1900, 2, 28, 23, 59, 59),
+            LocalDateTime.of(1900, 3, 1, 0, 0),
+            LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(2000, 2, 29, 0, 0),
+            LocalDateTime.of(2000, 3, 1, 0, 0),
+            LocalDateTime.of(2024, 2, 29, 23, 59, 59, 100_000_000),
+            LocalDateTime.of(2024, 12, 31, 12, 30, 0, 120_000_000),
+            LocalDateTime.of(2100, 2, 28, 0, 0, 0, 123_456_000),
+            LocalDateTime.of(2100, 3, 1, 0, 0, 0, 10_000),
+            LocalDateTime.of(2400, 2, 29, 0, 0),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_000),
+            // Outside 0000-9999: formatted and parsed through java.time
+            LocalDateTime.of(-1, 12, 31, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(-400, 2, 29, 0, 0),
+            LocalDateTime.of(10_000, 1, 1, 0, 0),
+            LocalDateTime.of(10_000, 2, 29, 0, 0, 0, 500_000_000),
+            LocalDateTime.of(-290_000, 1, 1, 0, 0),
+            LocalDateTime.of(290_000, 12, 31, 23, 59, 59, 999_999_000));
+
+    @Test
+    void formatMatchesIsoLocalDateTimeAtBoundaries() {
+        for (LocalDateTime timestamp : BOUNDARIES) {
+            assertEquals(ISO.format(timestamp), format(timestamp), timestamp::toString);
+        }
+    }
+
+    @Test
+    void formatDropsTrailingFractionZeros() {
+        assertEquals("2024-01-01T00:00:00.1", format(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 100_000_000)));
+        assertEquals("2024-01-01T00:00:00.12", format(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 120_000_000)));
+        assertEquals("2024-01-01T00:00:00.000001", format(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 1_000)));
+        assertEquals("2024-01-01T00:00:00", format(LocalDateTime.of(2024, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void formatMatchesIsoLocalDateTimeAcrossYears() {
+        Random random = new Random(16);
+        long from = TimestampCodec.toEpochMicros(LocalDateTime.of(0, 1, 1, 0, 0));
+        long to = TimestampCodec.toEpochMicros(LocalDateTime.of(10_000, 1, 1, 0, 0));
+        for (int i = 0; i < 100_000; i++) {
+            long micros = from + Math.floorMod(random.nextLong(), to - from);
+            if (i % 3 == 0) {
+                // Whole seconds and short fractions are the cases where trailing zeros are trimmed
+                micros -= Math.floorMod(micros, i % 2 == 0 ? 1_000_000 : 100_000);
+            }
+            assertEquals(ISO.format(TimestampCodec.toLocalDateTime(micros)), format(micros), Long.toString(micros));
+        }
+    }
+
+    @Test
+    void parseMatchesIsoLocalDateTime() {
+        for (LocalDateTime timestamp : BOUNDARIES) {
+            String text = ISO.format(timestamp);
+            assertEquals(TimestampCodec.toEpochMicros(timestamp), parse(text), text);
+        }
+    }
+
+    @Test
+    void parseAcceptsEveryShapeOfIsoLocalDateTime() {
+        List<String> texts = List.of(
+                "2024-02-29T12:34",
+                "2024-02-29T12:34:56",
+                "2024-02-29T12:34:56.",
+                "2024-02-29T12:34:56.7",
+                "2024-02-29T12:34:56.000007",
+                "2024-02-29T12:34:56.123456789",
+                "0000-01-01T00:00",
+                "9999-12-31T23:59:59.999999999",
+                "+10000-01-01T00:00:00",
+                "-0001-12-31T23:59:59.5");
+        for (String text : texts) {
+            assertEquals(TimestampCodec.toEpochMicros(LocalDateTime.parse(text, ISO)), parse(text), text);
+        }
+    }
+
+    @Test
+    void parseRejectsWhatIsoLocalDateTimeRejects() {
+        List<String> texts = List.of(
+                "2023-02-29T00:00",
+                "1900-02-29T00:00",
+                "2024-13-01T00:00",
+                "2024-01-01T24:00",
+                "2024-01-01T00:60",
+                "2024-01-01T00:00:60",
+                "2024-01-01T00:00:00.1234567890",
+                "2024-01-01 00:00:00",
+                "2024-1-01T00:00");
+        for (String text : texts) {
+            assertThrows(DateTimeException.class, () -> LocalDateTime.parse(text, ISO), text);
+            assertThrows(DateTimeException.class, () -> parse(text), text);
+        }
+    }
+
+    @Test
+    void formatThenParseRoundTrips() {
+        Random random = new Random(1970);
+        for (int i = 0; i < 100_000; i++) {
+            // Within about 290,000 years of the epoch, so every value fits the codec's text and range
+            long micros = random.nextLong() / 32;
+            assertEquals(micros, parse(format(micros)), Long.toString(micros));
+        }
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return format(TimestampCodec.toEpochMicros(timestamp));
+    }
+
+    private static String format(long epochMicros) {
+        char[] buffer = new char[TimestampCodec.MAX_LENGTH];
+        return new String(buffer, 0, TimestampCodec.format(epochMicros, buffer));
+    }
+
+    private static long parse(String text) {
+        // Offset into a larger array, as when parsing straight from a JSON parser's buffer
+        char[] chars = ("\"" + text + "\"").toCharArray();
+        return TimestampCodec.parse(chars, 1, text.length());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.server.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent map holding about {@code maxEntries} entries, shared by the server's per-client caches.
+ * <p>
+ * Reads are plain {@link ConcurrentHashMap} lookups. An entry added to a full map first makes room:
+ * entries the caller reports as stale are dropped, then, if that freed less than a tenth of the
+ * bound, arbitrary entries until nine tenths remain. One thread sweeps at a time; others add their
+ * entries meanwhile and overshoot the bound only briefly. Caches whose entries are expensive to lose
+ * use {@link #sweep} and {@link #putIfAbsent} instead, which never drop live entries.
+ */
+public final class BoundedMap<K, V> {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public BoundedMap(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public boolean isFull() {
+        return entries.size() >= maxEntries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Adds or replaces an entry, making room first if the map is full; nothing is known to be stale.
+     */
+    public void put(K key, V value) {
+        put(key, value, v -> false);
+    }
+
+    /**
+     * Adds or replaces an entry, making room first if the map is full.
+     *
+     * @param stale entries that may be dropped before any others
+     */
+    public void put(K key, V value, Predicate<? super V> stale) {
+        if (isFull()) {
+            evict(stale);
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * Adds an entry regardless of the bound; callers check {@link #isFull()} and {@link #sweep} first.
+     *
+     * @return the entry already mapped to the key, or null if this one was added
+     */
+    public V putIfAbsent(K key, V value) {
+        return entries.putIfAbsent(key, value);
+    }
+
+    /**
+     * Drops stale entries only.
+     *
+     * @return whether the map has room afterwards; false as well while another thread is sweeping
+     */
+    public boolean sweep(Predicate<? super V> stale) {
+        if (!evicting.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            entries.values().removeIf(stale);
+        } finally {
+            evicting.set(false);
+        }
+        return !isFull();
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evict(Predicate<? super V> stale) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(stale);
+            int excess = entries.size() - maxEntries * 9 / 10;
+            Iterator<V> iterator = entries.values().iterator();
+            while (excess-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
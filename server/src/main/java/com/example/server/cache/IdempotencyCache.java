@@ -0,0 +1,170 @@
+package com.example.server.cache;
+
+import com.example.common.dto.Message;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Responses of {@code POST /api/secure/message} by {@code Idempotency-Key}, so a client that resends
+ * a POST after losing the connection gets the original response back instead of storing the message
+ * a second time.
+ * <p>
+ * Keys are scoped to the client - the subject of its TLS client certificate, or its address when it
+ * presented none - rather than to the principal name, which is absent without the mTLS principal
+ * filter. They are remembered for {@code ttl} after the first request completed. A repeat while the
+ * first request is still running gets 409, and a key reused with different content gets 422; failed
+ * requests are forgotten so they can be retried.
+ * <p>
+ * Entries live in {@code stripes} independent insertion-ordered maps, each behind its own monitor,
+ * so concurrent requests only contend when their keys hash to the same stripe. Each stripe holds at
+ * most its share of {@code max-entries}, dropping its oldest entry when full, and drops expired
+ * entries from its head whenever one is added.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+    /** Set on responses to say whether they were replayed from the cache. */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+
+    /**
+     * The response to return and whether it is a replay of an earlier request.
+     */
+    public record Result(Message response, boolean replayed) {
+    }
+
+    private record Key(String client, String idempotencyKey) {
+    }
+
+    // response is null while the first request is still being processed
+    private record Entry(String content, Message response, long completedAt) {
+    }
+
+    private static final class Stripe extends LinkedHashMap<Key, Entry> {
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final long ttlNanos;
+    private final Stripe[] stripes;
+
+    /**
+     * The scope of a request's keys: its client certificate's subject, as the rate limiter identifies
+     * clients without a principal, or its remote address.
+     */
+    public static String clientOf(HttpServletRequest request) {
+        if (request.getAttribute(CERTIFICATE_ATTRIBUTE) instanceof X509Certificate[] chain && chain.length > 0) {
+            return chain[0].getSubjectX500Principal().getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    public IdempotencyCache(@Value("${server.api.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${server.api.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${server.api.idempotency.stripes:64}") int stripes) {
+        this.ttlNanos = ttl.toNanos();
+        // A power of two, so a stripe is picked with a mask
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, maxEntries / count));
+        }
+    }
+
+    /**
+     * Runs {@code action} for the first request with this key and remembers its response; later
+     * requests with the same key and content get that response without running it.
+     *
+     * @throws ResponseStatusException 400 for an invalid key, 409 while the first request is still
+     *                                 running, 422 if the key was used for different content
+     */
+    public Result execute(String client, String idempotencyKey, Message request, Supplier<Message> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(client, idempotencyKey);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry existing = stripe.get(key);
+            if (existing != null && isExpired(existing, System.nanoTime())) {
+                stripe.remove(key);
+                existing = null;
+            }
+            if (existing != null) {
+                if (!Objects.equals(existing.content(), request.getContent())) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                            "Idempotency-Key was already used for a different message");
+                }
+                if (existing.response() == null) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "A request with this Idempotency-Key is still being processed");
+                }
+                return new Result(existing.response(), true);
+            }
+            stripe.put(key, new Entry(request.getContent(), null, 0));
+        }
+
+        Message response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+            throw e;
+        }
+        synchronized (stripe) {
+            long now = System.nanoTime();
+            // Re-inserted so the stripe stays ordered by completion time, which expireHead relies on
+            stripe.remove(key);
+            stripe.put(key, new Entry(request.getContent(), response, now));
+            expireHead(stripe, now);
+        }
+        return new Result(response, false);
+    }
+
+    private Stripe stripeFor(Key key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return entry.response() != null && now - entry.completedAt() >= ttlNanos;
+    }
+
+    // Stops at the first live entry; one still in progress is never expired
+    private void expireHead(Stripe stripe, long now) {
+        Iterator<Entry> entries = stripe.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (!isExpired(entry, now)) {
+                return;
+            }
+            entries.remove();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.server.cache;
+
+import com.example.common.dto.Message;
+import com.example.common.json.TimestampCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Pre-encoded JSON bodies for {@code GET /api/secure/message}.
+ * <p>
+ * The constant part of the response is serialized once at startup with the application's
+ * ObjectMapper, using marker values for the sender and timestamp, and split into three byte
+ * segments. Each request only escapes the sender and formats the timestamp between them. With a
+ * positive {@code server.api.message-cache.freshness} the finished body is additionally cached per
+ * sender, so repeated calls within the window return the same bytes and timestamp.
+ */
+@Component
+public class SecureMessageBodyCache {
+
+    public static final String CONTENT =
+            "This is a secure message transmitted over HTTPS with proper certificate chain validation";
+
+    private static final Logger log = LoggerFactory.getLogger(SecureMessageBodyCache.class);
+
+    private static final String SENDER_MARKER = "__sender__";
+    // 1970-01-01T00:00:01
+    private static final long TIMESTAMP_MARKER = 1_000_000;
+
+    private record CachedBody(byte[] body, long createdAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long freshnessNanos;
+    private final BoundedMap<String, CachedBody> bodies;
+
+    // null when the mapper's output could not be split, in which case every body is fully serialized
+    private final byte[][] segments;
+
+    public SecureMessageBodyCache(ObjectMapper objectMapper,
+                                  @Value("${server.api.message-cache.freshness:0s}") Duration freshness,
+                                  @Value("${server.api.message-cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.freshnessNanos = freshness.toNanos();
+        this.bodies = new BoundedMap<>(maxEntries);
+        this.segments = split(objectMapper);
+    }
+
+    public byte[] body(String sender) {
+        if (freshnessNanos <= 0) {
+            return render(sender, TimestampCodec.nowEpochMicros());
+        }
+        long now = System.nanoTime();
+        CachedBody cached = bodies.get(sender);
+        if (cached != null && now - cached.createdAt() < freshnessNanos) {
+            return cached.body();
+        }
+        byte[] body = render(sender, TimestampCodec.nowEpochMicros());
+        bodies.put(sender, new CachedBody(body, now), stale -> now - stale.createdAt() >= freshnessNanos);
+        return body;
+    }
+
+    private byte[] render(String sender, long timestampMicros) {
+        if (segments == null) {
+            try {
+                return objectMapper.writeValueAsBytes(new Message(CONTENT, sender, timestampMicros));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        byte[] escapedSender = JsonStringEncoder.getInstance().quoteAsUTF8(sender);
+        // Same text Message's serializer writes; ASCII only, so each char is one byte
+        char[] formattedTimestamp = TimestampCodec.threadBuffer();
+        int timestampLength = TimestampCodec.format(timestampMicros, formattedTimestamp);
+
+        byte[] prefix = segments[0];
+        byte[] middle = segments[1];
+        byte[] suffix = segments[2];
+        byte[] body = new byte[prefix.length + escapedSender.length + middle.length
+                + timestampLength + suffix.length];
+        int offset = 0;
+        System.arraycopy(prefix, 0, body, offset, prefix.length);
+        offset += prefix.length;
+        System.arraycopy(escapedSender, 0, body, offset, escapedSender.length);
+        offset += escapedSender.length;
+        System.arraycopy(middle, 0, body, offset, middle.length);
+        offset += middle.length;
+        for (int i = 0; i < timestampLength; i++) {
+            body[offset++] = (byte) formattedTimestamp[i];
+        }
+        System.arraycopy(suffix, 0, body, offset, suffix.length);
+        return body;
+    }
+
+    private static byte[][] split(ObjectMapper objectMapper) {
+        String template;
+        try {
+            template = objectMapper.writeValueAsString(new Message(CONTENT, SENDER_MARKER, TIMESTAMP_MARKER));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize message template", e);
+        }
+        char[] markerText = new char[TimestampCodec.MAX_LENGTH];
+        String timestampMarker = '"' + new String(markerText, 0, TimestampCodec.format(TIMESTAMP_MARKER, markerText)) + '"';
+        int senderStart = template.indexOf('"' + SENDER_MARKER + '"') + 1;
+        int timestampStart = template.indexOf(timestampMarker) + 1;
+        if (senderStart <= 0 || timestampStart <= senderStart) {
+            log.warn("ObjectMapper output {} does not match the expected layout; "
+                    + "GET /api/secure/message bodies will be fully serialized", template);
+            return null;
+        }
+        int senderEnd = senderStart + SENDER_MARKER.length();
+        int timestampEnd = timestampStart + timestampMarker.length() - 2;
+        return new byte[][] {
+                template.substring(0, senderStart).getBytes(StandardCharsets.UTF_8),
+                template.substring(senderEnd, timestampStart).getBytes(StandardCharsets.UTF_8),
+                template.substring(timestampEnd).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+}
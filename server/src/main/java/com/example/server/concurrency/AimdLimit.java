@@ -0,0 +1,73 @@
+package com.example.server.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted by additive increase / multiplicative decrease on observed latency.
+ * <p>
+ * A request that completes within the latency threshold while at least half the limit is in use
+ * raises the limit by one; below half it says nothing about the server's capacity and leaves it
+ * alone. A slower request multiplies the limit by the backoff ratio, at most once per threshold
+ * interval, so a burst of slow responses from one overload episode backs off once rather than
+ * collapsing the limit to its minimum. All state is atomic; acquiring and releasing a permit never
+ * blocks.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease;
+
+    AimdLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = Math.max(1, properties.minLimit());
+        this.maxLimit = Math.max(minLimit, properties.maxLimit());
+        this.thresholdNanos = properties.latencyThreshold().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, properties.initialLimit())));
+        this.lastDecrease = new AtomicLong(System.nanoTime() - thresholdNanos);
+    }
+
+    /**
+     * Takes a permit if fewer than {@link #limit()} requests are in flight.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit and adjusts the limit to the request's latency.
+     */
+    void release(long startNanos) {
+        int current = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        if (now - startNanos > thresholdNanos) {
+            long last = lastDecrease.get();
+            if (now - last > thresholdNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+            }
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.server.concurrency;
+
+import com.example.server.ratelimit.RateLimitConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server.api.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitConfiguration {
+
+    // Right after the rate limit, so requests a noisy client is not entitled to never take a permit
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/secure/*");
+        registration.setOrder(RateLimitConfiguration.ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.server.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load with an immediate 503 once the number of {@code /api/secure} requests in progress
+ * reaches an adaptive limit ({@link AimdLimit}), instead of letting every caller queue for a
+ * container thread until it times out. The limit follows observed latency, so it settles near what
+ * the server can process without queueing.
+ * <p>
+ * The health probe is exempt, as is the management port, which has a container of its own. So is
+ * the NDJSON feed: a stream holds its request for as long as the consumer reads, which says nothing
+ * about load, and a few slow readers would otherwise keep the limit's permits and shed everything
+ * else. Its length is bounded by {@code server.api.stream.max-records} instead.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String HEALTH_PATH = "/api/secure/health";
+    private static final String STREAM_PATH = "/api/secure/messages/stream";
+
+    private final AimdLimit limit;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new AimdLimit(properties);
+        this.rejected = Counter.builder("http.server.requests.shed")
+                .description("Requests to /api/secure rejected with 503 by the adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.concurrency.limit", limit, AimdLimit::limit)
+                .description("Current adaptive limit on /api/secure requests in progress")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.concurrency.in.flight", limit, AimdLimit::inFlight)
+                .description("/api/secure requests in progress under the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return HEALTH_PATH.equals(path) || STREAM_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is overloaded");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(start);
+        }
+    }
+}
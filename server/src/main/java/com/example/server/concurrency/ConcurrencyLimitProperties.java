@@ -0,0 +1,27 @@
+package com.example.server.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive limit on requests to {@code /api/secure/**} processed at the same time (the health probe
+ * is exempt).
+ *
+ * @param enabled          whether the concurrency limit filter is installed
+ * @param initialLimit     limit at startup, before any latency has been observed
+ * @param minLimit         the limit never shrinks below this
+ * @param maxLimit         the limit never grows beyond this; more than the container's worker threads gains nothing
+ * @param latencyThreshold a request slower than this counts as a sign of overload and shrinks the limit
+ * @param backoffRatio     factor the limit is multiplied by on overload
+ */
+@ConfigurationProperties("server.api.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int initialLimit,
+        @DefaultValue("10") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("500ms") Duration latencyThreshold,
+        @DefaultValue("0.9") double backoffRatio) {
+}
@@ -1,44 +1,145 @@
 package com.example.server.controller;
 
+import com.example.common.dto.BatchItemResult;
 import com.example.common.dto.Message;
+import com.example.server.cache.IdempotencyCache;
+import com.example.server.cache.SecureMessageBodyCache;
+import com.example.server.health.HealthSnapshot;
+import com.example.server.service.MessageHistoryService;
+import com.example.server.service.MessageIngestService;
+import com.example.server.service.MessageStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/secure")
 public class SecureController {
 
-    @GetMapping("/message")
-    public ResponseEntity<Message> getSecureMessage(Principal principal) {
+    private final SecureMessageBodyCache messageBodyCache;
+    private final HealthSnapshot healthSnapshot;
+    private final MessageIngestService ingestService;
+    private final MessageStreamService streamService;
+    private final MessageHistoryService historyService;
+    private final IdempotencyCache idempotencyCache;
+
+    public SecureController(SecureMessageBodyCache messageBodyCache,
+                            HealthSnapshot healthSnapshot,
+                            MessageIngestService ingestService,
+                            MessageStreamService streamService,
+                            MessageHistoryService historyService,
+                            IdempotencyCache idempotencyCache) {
+        this.messageBodyCache = messageBodyCache;
+        this.healthSnapshot = healthSnapshot;
+        this.ingestService = ingestService;
+        this.streamService = streamService;
+        this.historyService = historyService;
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    // Highest-QPS endpoint: serves pre-encoded JSON instead of building and serializing a Message.
+    // An explicit Accept: application/cbor gets a Message encoded by the CBOR message converter instead.
+    @GetMapping(value = "/message", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> getSecureMessage(@RequestHeader HttpHeaders headers, Principal principal) {
         String sender = principal != null ? principal.getName() : "Server";
-        Message message = new Message(
-                "This is a secure message transmitted over HTTPS with proper certificate chain validation",
-                sender
-        );
-        return ResponseEntity.ok(message);
+        if (prefersCbor(headers)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .body(new Message(SecureMessageBodyCache.CONTENT, sender));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(messageBodyCache.body(sender));
+    }
+
+    // History paging: stored records are copied from the memory-mapped log as-is, never deserialized (JSON only)
+    @GetMapping(value = "/messages", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<?> getStoredMessages(
+            @RequestParam(required = false) Long fromOffset,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader HttpHeaders headers) throws IOException {
+        if (prefersCbor(headers)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .body(historyService.pageMessages(fromOffset, since, limit));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(historyService.page(fromOffset, since, limit));
     }
 
+    // Feed download: stored records as NDJSON, written as read on the request thread; omit count to read to the end
+    @GetMapping(value = "/messages/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamSecureMessages(@RequestParam(defaultValue = "0") long fromOffset,
+                                     @RequestParam(required = false) Long count,
+                                     HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        streamService.write(response.getOutputStream(), fromOffset, count != null ? Math.max(0, count) : -1);
+    }
+
+    // With an Idempotency-Key a resent POST is answered from the cache instead of being stored again
     @PostMapping("/message")
-    public ResponseEntity<Message> postSecureMessage(@RequestBody Message message, Principal principal) {
+    public ResponseEntity<Message> postSecureMessage(@RequestBody Message message,
+                                                     @RequestHeader(name = IdempotencyCache.HEADER, required = false)
+                                                     String idempotencyKey,
+                                                     Principal principal,
+                                                     HttpServletRequest request) {
+        String sender = principal != null ? principal.getName() : "Anonymous";
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(ingestService.receive(message, sender));
+        }
+        IdempotencyCache.Result result = idempotencyCache.execute(IdempotencyCache.clientOf(request), idempotencyKey,
+                message, () -> ingestService.receive(message, sender));
+        return ResponseEntity.ok()
+                .header(IdempotencyCache.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    // Batch ingestion: one request and one TLS record stream for many messages, with a result per item
+    @PostMapping(value = "/messages", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<BatchItemResult>> postSecureMessages(@RequestBody List<Message> messages,
+                                                                    Principal principal) {
         String sender = principal != null ? principal.getName() : "Anonymous";
-        Message response = new Message(
-                "Received: " + message.getContent(),
-                sender,
-                LocalDateTime.now()
-        );
-        return ResponseEntity.ok(response);
-    }
-
-    @GetMapping("/health")
-    public ResponseEntity<Map<String, Object>> health() {
-        return ResponseEntity.ok(Map.of(
-                "status", "UP",
-                "timestamp", LocalDateTime.now(),
-                "ssl", "enabled",
-                "certificateChain", "root -> intermediate -> server"
-        ));
-    }
-}
\ No newline at end of file
+        return ResponseEntity.ok(ingestService.receiveAll(messages, sender));
+    }
+
+    @PostMapping(value = "/messages", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> postSecureMessagesNdjson(InputStream body,
+                                                                         Principal principal) throws IOException {
+        String sender = principal != null ? principal.getName() : "Anonymous";
+        return ResponseEntity.ok(ingestService.receiveNdjson(body, sender));
+    }
+
+    // Probed constantly by load balancers: serves the latest scheduled snapshot as-is
+    @GetMapping(value = "/health", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> health() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(healthSnapshot.cacheControl())
+                .body(healthSnapshot.body());
+    }
+
+    // JSON stays the default for wildcard and missing Accept headers; CBOR only when asked for with a higher quality
+    private static boolean prefersCbor(HttpHeaders headers) {
+        double cbor = 0;
+        double json = 0;
+        for (MediaType accepted : headers.getAccept()) {
+            if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(accepted)) {
+                cbor = Math.max(cbor, accepted.getQualityValue());
+            } else if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(accepted)) {
+                json = Math.max(json, accepted.getQualityValue());
+            }
+        }
+        return cbor > json;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.server.health;
+
+import com.example.server.tls.ServedCertificates;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-encoded body for {@code GET /api/secure/health}, rebuilt every
+ * {@code server.api.health.refresh-interval} instead of on every probe.
+ * <p>
+ * TLS details come from the certificate chains the secure connector currently serves, so they
+ * follow certificate rotation. Every served chain (RSA and ECDSA when both are configured) is listed
+ * under {@code certificates}; the top-level fields describe the one that expires first, and the
+ * status turns {@code DOWN} once it has expired.
+ */
+@Component
+public class HealthSnapshot implements SchedulingConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+    private final CacheControl cacheControl;
+
+    private volatile WebServer webServer;
+    private volatile byte[] body;
+
+    public HealthSnapshot(ObjectMapper objectMapper,
+                          @Value("${server.api.health.refresh-interval:5s}") Duration refreshInterval) {
+        this.objectMapper = objectMapper;
+        this.refreshInterval = refreshInterval;
+        this.cacheControl = CacheControl.maxAge(refreshInterval);
+        refresh();
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::refresh, refreshInterval);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(ServletWebServerInitializedEvent event) {
+        // The management server publishes the same event from its own namespace
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            webServer = event.getWebServer();
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        List<X509Certificate[]> chains = webServer != null ? ServedCertificates.chains(webServer) : List.of();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("status", "UP");
+        snapshot.put("timestamp", LocalDateTime.now());
+        snapshot.put("ssl", chains.isEmpty() ? "unknown" : "enabled");
+        if (!chains.isEmpty()) {
+            List<X509Certificate[]> byExpiry = new ArrayList<>(chains);
+            byExpiry.sort(Comparator.comparing(chain -> chain[0].getNotAfter()));
+            X509Certificate[] first = byExpiry.get(0);
+            snapshot.putAll(describe(first));
+            if (first[0].getNotAfter().toInstant().isBefore(Instant.now())) {
+                snapshot.put("status", "DOWN");
+            }
+            List<Map<String, Object>> certificates = new ArrayList<>(chains.size());
+            for (X509Certificate[] chain : chains) {
+                Map<String, Object> certificate = new LinkedHashMap<>();
+                certificate.put("keyType", chain[0].getPublicKey().getAlgorithm());
+                certificate.putAll(describe(chain));
+                certificates.add(certificate);
+            }
+            snapshot.put("certificates", certificates);
+        }
+
+        try {
+            body = objectMapper.writeValueAsBytes(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize health snapshot", e);
+        }
+    }
+
+    private static Map<String, Object> describe(X509Certificate[] chain) {
+        Instant expiry = chain[0].getNotAfter().toInstant();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("certificateChain", names(chain));
+        description.put("chainDepth", chain.length);
+        description.put("certificateExpiry", expiry.toString());
+        description.put("daysUntilExpiry", Duration.between(Instant.now(), expiry).toDays());
+        return description;
+    }
+
+    // Root first, matching the "root -> intermediate -> server" notation
+    private static String names(X509Certificate[] chain) {
+        List<String> names = new ArrayList<>(chain.length);
+        for (X509Certificate certificate : chain) {
+            names.add(commonName(certificate));
+        }
+        Collections.reverse(names);
+        return String.join(" -> ", names);
+    }
+
+    private static String commonName(X509Certificate certificate) {
+        String subject = certificate.getSubjectX500Principal().getName();
+        try {
+            for (Rdn rdn : new LdapName(subject).getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            // fall through to the full subject
+        }
+        return subject;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.server.http2;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Http2Properties} to the HTTP/2 upgrade protocol Spring Boot adds to the secure
+ * connector when {@code server.http2.enabled=true}. Over TLS, h2 is selected through ALPN and
+ * clients that do not offer it keep using HTTP/1.1 on the same port.
+ */
+@Component
+public class Http2ConnectorCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final Http2Properties properties;
+
+    public Http2ConnectorCustomizer(Http2Properties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+                if (upgradeProtocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(properties.maxConcurrentStreams());
+                    http2.setMaxConcurrentStreamExecution(properties.maxConcurrentStreamExecution());
+                    http2.setInitialWindowSize(properties.initialWindowSize());
+                    http2.setMaxHeaderCount(properties.maxHeaderCount());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.server.http2;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Multiplexing limits for HTTP/2 on the secure connector, next to Spring Boot's own
+ * {@code server.http2.enabled} switch.
+ *
+ * @param maxConcurrentStreams         streams a client may have open on one connection (SETTINGS_MAX_CONCURRENT_STREAMS)
+ * @param maxConcurrentStreamExecution streams of one connection processed at the same time; the rest wait for a container thread
+ * @param initialWindowSize            per-stream flow-control window advertised to clients, in bytes (SETTINGS_INITIAL_WINDOW_SIZE)
+ * @param maxHeaderCount               header fields accepted per request
+ */
+@ConfigurationProperties("server.http2")
+public record Http2Properties(
+        @DefaultValue("200") long maxConcurrentStreams,
+        @DefaultValue("200") int maxConcurrentStreamExecution,
+        @DefaultValue("65535") int initialWindowSize,
+        @DefaultValue("100") int maxHeaderCount) {
+}
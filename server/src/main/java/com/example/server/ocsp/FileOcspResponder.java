@@ -0,0 +1,27 @@
+package com.example.server.ocsp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+
+/**
+ * Offline stand-in for an OCSP responder: reads pre-signed responses from a directory, one file per
+ * certificate (the server certificate and any intermediates) named after its serial number in
+ * lower-case hex without leading zeros, plus {@code .der}, for example as written by
+ * {@code openssl ocsp -respout}. Replacing a file is picked up by the next refresh.
+ */
+public class FileOcspResponder implements OcspResponder {
+
+    private final Path directory;
+
+    public FileOcspResponder(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public byte[] fetch(X509Certificate certificate, X509Certificate issuer) throws IOException {
+        Path file = directory.resolve(certificate.getSerialNumber().toString(16) + ".der");
+        return Files.exists(file) ? Files.readAllBytes(file) : null;
+    }
+}
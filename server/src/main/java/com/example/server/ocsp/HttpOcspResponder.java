@@ -0,0 +1,54 @@
+package com.example.server.ocsp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+
+/**
+ * Asks an OCSP responder over HTTP (RFC 6960 POST): the configured one, or else the responder named
+ * in the certificate's Authority Information Access extension.
+ */
+public class HttpOcspResponder implements OcspResponder {
+
+    private static final String OCSP_REQUEST = "application/ocsp-request";
+
+    private final URI responder;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public HttpOcspResponder(URI responder, Duration timeout) {
+        this.responder = responder;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public byte[] fetch(X509Certificate certificate, X509Certificate issuer) throws IOException {
+        URI uri = responder != null ? responder : OcspDer.responderUri(certificate);
+        if (uri == null) {
+            return null;
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", OCSP_REQUEST)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(OcspDer.request(certificate, issuer)))
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("OCSP responder " + uri + " answered " + response.statusCode());
+            }
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for OCSP responder " + uri, e);
+        }
+    }
+}
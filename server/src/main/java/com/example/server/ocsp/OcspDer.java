@@ -0,0 +1,202 @@
+package com.example.server.ocsp;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * The few pieces of RFC 6960 DER the stapling cache needs, without pulling in an ASN.1 library:
+ * building a single-certificate request, reading the certificate it asks about back out of one, and
+ * checking a response's status. Responses are otherwise passed through untouched; JSSE parses and checks them
+ * before stapling.
+ */
+final class OcspDer {
+
+    static final int SUCCESSFUL = 0;
+    static final int MALFORMED_REQUEST = 1;
+    static final int TRY_LATER = 3;
+
+    private static final int SEQUENCE = 0x30;
+    private static final int INTEGER = 0x02;
+    private static final int OCTET_STRING = 0x04;
+    private static final int BIT_STRING = 0x03;
+    private static final int ENUMERATED = 0x0a;
+    private static final int URI_NAME = 0x86;
+
+    // AlgorithmIdentifier for SHA-1 with NULL parameters, as JSSE and OpenSSL put it in CertIDs
+    private static final byte[] SHA1_ALGORITHM = {0x30, 0x09, 0x06, 0x05, 0x2b, 0x0e, 0x03, 0x02, 0x1a, 0x05, 0x00};
+    private static final byte[] OCSP_ACCESS_METHOD = {0x06, 0x08, 0x2b, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x01};
+    private static final String AUTHORITY_INFO_ACCESS = "1.3.6.1.5.5.7.1.1";
+
+    private OcspDer() {
+    }
+
+    /**
+     * Identifies a certificate the way {@link #certificateOf(byte[])} reads it from a request: issuer
+     * name hash and serial number. JSSE and OpenSSL both hash with SHA-1.
+     */
+    static String certificateId(X509Certificate certificate, X509Certificate issuer) {
+        return id(sha1(issuer.getSubjectX500Principal().getEncoded()), certificate.getSerialNumber());
+    }
+
+    static byte[] request(X509Certificate certificate, X509Certificate issuer) {
+        byte[] certId = tlv(SEQUENCE,
+                SHA1_ALGORITHM,
+                tlv(OCTET_STRING, sha1(issuer.getSubjectX500Principal().getEncoded())),
+                tlv(OCTET_STRING, sha1(subjectPublicKey(issuer))),
+                tlv(INTEGER, certificate.getSerialNumber().toByteArray()));
+        // OCSPRequest { TBSRequest { requestList { Request { CertID } } } }
+        return tlv(SEQUENCE, tlv(SEQUENCE, tlv(SEQUENCE, tlv(SEQUENCE, certId))));
+    }
+
+    /**
+     * @return the {@link #certificateId} of the first certificate asked about, or null if the request cannot be read
+     */
+    static String certificateOf(byte[] request) {
+        try {
+            int[] ocspRequest = header(request, 0, SEQUENCE);
+            int[] tbsRequest = header(request, ocspRequest[0], SEQUENCE);
+            int offset = tbsRequest[0];
+            // Optional [0] version and [1] requestorName
+            while ((request[offset] & 0xff) == 0xa0 || (request[offset] & 0xff) == 0xa1) {
+                offset = end(request, offset);
+            }
+            int[] requestList = header(request, offset, SEQUENCE);
+            int[] firstRequest = header(request, requestList[0], SEQUENCE);
+            int[] certId = header(request, firstRequest[0], SEQUENCE);
+            int[] issuerNameHash = header(request, end(request, certId[0]), OCTET_STRING);
+            int[] serial = header(request, end(request, issuerNameHash[0] + issuerNameHash[1]), INTEGER);
+            return id(Arrays.copyOfRange(request, issuerNameHash[0], issuerNameHash[0] + issuerNameHash[1]),
+                    new BigInteger(Arrays.copyOfRange(request, serial[0], serial[0] + serial[1])));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the responseStatus of an OCSPResponse, or -1 if it cannot be read
+     */
+    static int responseStatus(byte[] response) {
+        try {
+            int[] ocspResponse = header(response, 0, SEQUENCE);
+            int[] status = header(response, ocspResponse[0], ENUMERATED);
+            return status[1] == 1 ? response[status[0]] & 0xff : -1;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * An OCSPResponse without response bytes, as sent for every status but successful.
+     */
+    static byte[] statusOnly(int status) {
+        return new byte[]{SEQUENCE, 0x03, ENUMERATED, 0x01, (byte) status};
+    }
+
+    /**
+     * @return the first OCSP responder URI in the certificate's Authority Information Access extension, if any
+     */
+    static URI responderUri(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(AUTHORITY_INFO_ACCESS);
+        if (extension == null) {
+            return null;
+        }
+        try {
+            int[] wrapper = header(extension, 0, OCTET_STRING);
+            int[] descriptions = header(extension, wrapper[0], SEQUENCE);
+            int offset = descriptions[0];
+            while (offset < descriptions[0] + descriptions[1]) {
+                int[] description = header(extension, offset, SEQUENCE);
+                int method = description[0];
+                int location = end(extension, method);
+                if (Arrays.equals(extension, method, location, OCSP_ACCESS_METHOD, 0, OCSP_ACCESS_METHOD.length)
+                        && (extension[location] & 0xff) == URI_NAME) {
+                    int[] uri = header(extension, location, URI_NAME);
+                    return URI.create(new String(extension, uri[0], uri[1], StandardCharsets.US_ASCII));
+                }
+                offset = end(extension, offset);
+            }
+        } catch (RuntimeException e) {
+            // Malformed extension: treated as absent
+        }
+        return null;
+    }
+
+    private static String id(byte[] issuerNameHash, BigInteger serialNumber) {
+        return HexFormat.of().formatHex(issuerNameHash) + ':' + serialNumber.toString(16);
+    }
+
+    private static byte[] subjectPublicKey(X509Certificate certificate) {
+        // SubjectPublicKeyInfo { AlgorithmIdentifier, BIT STRING }; the hash covers the key bits only
+        byte[] info = certificate.getPublicKey().getEncoded();
+        int[] sequence = header(info, 0, SEQUENCE);
+        int[] key = header(info, end(info, sequence[0]), BIT_STRING);
+        return Arrays.copyOfRange(info, key[0] + 1, key[0] + key[1]);
+    }
+
+    /**
+     * @return {content offset, content length} of the element at offset, which must have the given tag
+     */
+    private static int[] header(byte[] der, int offset, int tag) {
+        if ((der[offset] & 0xff) != tag) {
+            throw new IllegalArgumentException("Expected tag " + tag + " at " + offset);
+        }
+        int length = der[offset + 1] & 0xff;
+        int start = offset + 2;
+        if (length > 0x80) {
+            int octets = length & 0x7f;
+            length = 0;
+            for (int i = 0; i < octets; i++) {
+                length = (length << 8) | (der[start++] & 0xff);
+            }
+        } else if (length == 0x80) {
+            throw new IllegalArgumentException("Indefinite length at " + offset);
+        }
+        if (start + length > der.length) {
+            throw new IllegalArgumentException("Truncated element at " + offset);
+        }
+        return new int[]{start, length};
+    }
+
+    private static int end(byte[] der, int offset) {
+        int[] element = header(der, offset, der[offset] & 0xff);
+        return element[0] + element[1];
+    }
+
+    private static byte[] tlv(int tag, byte[]... contents) {
+        int length = 0;
+        for (byte[] content : contents) {
+            length += content.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 4);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else if (length < 0x100) {
+            out.write(0x81);
+            out.write(length);
+        } else {
+            out.write(0x82);
+            out.write(length >> 8);
+            out.write(length);
+        }
+        for (byte[] content : contents) {
+            out.writeBytes(content);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] sha1(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is required by every Java platform", e);
+        }
+    }
+}
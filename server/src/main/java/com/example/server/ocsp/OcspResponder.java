@@ -0,0 +1,16 @@
+package com.example.server.ocsp;
+
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Source of OCSP responses for the certificates the secure connector serves. The default is chosen
+ * by {@code server.ssl.ocsp-stapling.responder}; declaring a bean of this type replaces it.
+ */
+public interface OcspResponder {
+
+    /**
+     * @return a DER-encoded OCSPResponse for the certificate, or null if the responder has none
+     */
+    byte[] fetch(X509Certificate certificate, X509Certificate issuer) throws IOException;
+}
@@ -0,0 +1,191 @@
+package com.example.server.ocsp;
+
+import com.example.server.tls.ServedCertificates;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OCSP responses for the certificates the secure connector serves, fetched from the
+ * {@link OcspResponder} in the background and handed to JSSE's stapling support through a responder
+ * endpoint on the loopback interface.
+ * <p>
+ * JSSE only staples what it fetches itself, from one responder URI, on the handshake that first
+ * needs it. Pointing that URI at this cache keeps the real responder off the handshake path: JSSE's
+ * fetch is a loopback round trip answered from memory, and JSSE then keeps the response for
+ * {@code refresh-interval}. A response that cannot be refreshed is kept until the next attempt, so a
+ * responder outage does not stop stapling while the last response is still valid; certificates
+ * without a response are answered {@code tryLater} and go out unstapled.
+ * <p>
+ * Refreshes are timed as {@code tls.ocsp.refresh}, tagged with their result, and requests from JSSE
+ * counted as {@code tls.ocsp.stapling.requests}, tagged hit or miss.
+ */
+public class OcspResponseCache implements SchedulingConfigurer, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OcspResponseCache.class);
+
+    private static final String OCSP_RESPONSE = "application/ocsp-response";
+
+    private final OcspResponder responder;
+    private final OcspStaplingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, byte[]> responses = new ConcurrentHashMap<>();
+    private final HttpServer endpoint;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile WebServer webServer;
+
+    public OcspResponseCache(OcspResponder responder, OcspStaplingProperties properties, MeterRegistry meterRegistry)
+            throws IOException {
+        this.responder = responder;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("tls.ocsp.responses", responses, ConcurrentHashMap::size)
+                .description("Served certificates with an OCSP response ready to staple")
+                .register(meterRegistry);
+        this.endpoint = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        endpoint.createContext("/", this::answer);
+        endpoint.start();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tls.ocsp.stapling.requests")
+                .description("OCSP requests from the TLS stack by cache result (miss = handshake not stapled)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The loopback responder JSSE is pointed at.
+     */
+    public URI responderUri() {
+        InetSocketAddress address = endpoint.getAddress();
+        return URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + "/");
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::refresh, properties.refreshInterval());
+    }
+
+    @EventListener
+    public void onWebServerInitialized(ServletWebServerInitializedEvent event) {
+        // The management server publishes the same event from its own namespace
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            webServer = event.getWebServer();
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<X509Certificate[]> chains = webServer != null ? ServedCertificates.chains(webServer) : List.of();
+        Set<String> served = new HashSet<>();
+        for (X509Certificate[] chain : chains) {
+            // Every certificate with its issuer in the chain: TLS 1.3 clients may ask about intermediates too
+            for (int i = 0; i < chain.length - 1; i++) {
+                String id = OcspDer.certificateId(chain[i], chain[i + 1]);
+                if (served.add(id)) {
+                    refresh(id, chain[i], chain[i + 1]);
+                }
+            }
+        }
+        // Certificates rotated out of the connector
+        responses.keySet().retainAll(served);
+    }
+
+    private void refresh(String id, X509Certificate certificate, X509Certificate issuer) {
+        long start = System.nanoTime();
+        String result = "failure";
+        try {
+            byte[] response = responder.fetch(certificate, issuer);
+            if (response == null) {
+                result = "unavailable";
+                log.debug("No OCSP response available for {}", certificate.getSubjectX500Principal().getName());
+            } else if (OcspDer.responseStatus(response) != OcspDer.SUCCESSFUL) {
+                log.warn("OCSP responder answered status {} for {}; keeping the previous response",
+                        OcspDer.responseStatus(response), certificate.getSubjectX500Principal().getName());
+            } else {
+                responses.put(id, response);
+                result = "success";
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Fetching the OCSP response for {} failed; keeping the previous response: {}",
+                    certificate.getSubjectX500Principal().getName(), e.getMessage());
+        } finally {
+            Timer.builder("tls.ocsp.refresh")
+                    .description("Background fetches of OCSP responses for the server certificates")
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String id = OcspDer.certificateOf(requestOf(exchange));
+            byte[] response = id != null ? responses.get(id) : null;
+            if (response != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                response = OcspDer.statusOnly(id != null ? OcspDer.TRY_LATER : OcspDer.MALFORMED_REQUEST);
+            }
+            exchange.getResponseHeaders().set("Content-Type", OCSP_RESPONSE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private static byte[] requestOf(HttpExchange exchange) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            try (InputStream body = exchange.getRequestBody()) {
+                return body.readAllBytes();
+            }
+        }
+        // GET carries the request URL-encoded base64 as the last path segment
+        String path = exchange.getRequestURI().getRawPath();
+        try {
+            return Base64.getDecoder().decode(
+                    URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public void destroy() {
+        endpoint.stop(0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.server.ocsp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server.ssl.ocsp-stapling.enabled", havingValue = "true")
+public class OcspStaplingConfiguration {
+
+    // How long a handshake waits for JSSE's loopback fetch before going out unstapled
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(1);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OcspResponder ocspResponder(OcspStaplingProperties properties) throws IOException {
+        String responder = properties.responder();
+        if (responder != null && responder.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+            return new FileOcspResponder(ResourceUtils.getFile(responder).toPath());
+        }
+        return new HttpOcspResponder(responder == null || responder.isBlank() ? null : URI.create(responder),
+                properties.fetchTimeout());
+    }
+
+    @Bean
+    public OcspResponseCache ocspResponseCache(OcspResponder ocspResponder, OcspStaplingProperties properties,
+                                               MeterRegistry meterRegistry) throws IOException {
+        return new OcspResponseCache(ocspResponder, properties, meterRegistry);
+    }
+
+    /**
+     * JSSE reads these when an SSLContext is created, which happens after factory customization when
+     * the connector starts. They are JVM-wide, so the management connector staples the same way.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> ocspStaplingCustomizer(
+            OcspResponseCache ocspResponseCache, OcspStaplingProperties properties) {
+        return factory -> {
+            System.setProperty("jdk.tls.server.enableStatusRequestExtension", "true");
+            System.setProperty("jdk.tls.stapling.responderURI", ocspResponseCache.responderUri().toString());
+            System.setProperty("jdk.tls.stapling.responderOverride", "true");
+            System.setProperty("jdk.tls.stapling.cacheLifetime",
+                    Long.toString(Math.max(1, properties.refreshInterval().toSeconds())));
+            System.setProperty("jdk.tls.stapling.responseTimeout", Long.toString(RESPONSE_TIMEOUT.toMillis()));
+        };
+    }
+}
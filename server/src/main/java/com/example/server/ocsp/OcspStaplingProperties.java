@@ -0,0 +1,23 @@
+package com.example.server.ocsp;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * OCSP stapling on the secure connector, served from responses fetched in the background.
+ *
+ * @param enabled         whether server certificates are stapled with an OCSP response
+ * @param responder       where responses come from: an {@code http(s):} responder URL, a {@code file:}
+ *                        directory of pre-signed responses, or empty for each certificate's AIA responder
+ * @param refreshInterval how often responses are fetched again; also how long JSSE keeps one it stapled
+ * @param fetchTimeout    limit for one request to an HTTP responder
+ */
+@ConfigurationProperties("server.ssl.ocsp-stapling")
+public record OcspStaplingProperties(
+        @DefaultValue("false") boolean enabled,
+        String responder,
+        @DefaultValue("1h") Duration refreshInterval,
+        @DefaultValue("5s") Duration fetchTimeout) {
+}
@@ -0,0 +1,15 @@
+package com.example.server.principal;
+
+import java.security.Principal;
+
+/**
+ * Application identity of an mTLS client: a single attribute of its certificate subject, with the
+ * full subject DN kept for logging and auditing.
+ */
+public record ClientPrincipal(String name, String subject) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
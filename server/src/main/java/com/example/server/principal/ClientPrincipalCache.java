@@ -0,0 +1,95 @@
+package com.example.server.principal;
+
+import com.example.server.cache.BoundedMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * Maps client certificates to {@link ClientPrincipal}s, remembering the result per TLS session, so
+ * the subject DN is parsed once per session rather than once per request (every request on an
+ * HTTP/2 connection, and on resumed or kept-alive HTTP/1.1 connections, shares the session).
+ * <p>
+ * An entry is only used for the certificate it was computed from, so a reused session id can never
+ * hand out another client's identity. Lookups are counted as {@code tls.client.principal.cache},
+ * tagged hit or miss, with the running hit ratio as {@code tls.client.principal.cache.hit.ratio}.
+ * The {@link BoundedMap} drops an arbitrary tenth when {@code max-sessions} are tracked; those
+ * sessions pay for one more DN parse.
+ */
+public class ClientPrincipalCache {
+
+    private record Entry(X509Certificate certificate, ClientPrincipal principal) {
+    }
+
+    private final String nameAttribute;
+    private final BoundedMap<String, Entry> sessions;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ClientPrincipalCache(PrincipalCacheProperties properties, MeterRegistry meterRegistry) {
+        this.nameAttribute = properties.nameAttribute();
+        this.sessions = new BoundedMap<>(properties.maxSessions());
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("tls.client.principal.cache.hit.ratio", this, ClientPrincipalCache::hitRatio)
+                .description("Share of mTLS requests whose principal came from their TLS session's cache entry")
+                .register(meterRegistry);
+        Gauge.builder("tls.client.principal.cache.size", sessions, BoundedMap::size)
+                .description("TLS sessions whose client principal is currently remembered")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tls.client.principal.cache")
+                .description("Client principal lookups by cache result (miss = subject DN parsed)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param sessionId   the TLS session the certificate was presented in, or null if unknown
+     * @param certificate the client certificate
+     */
+    public ClientPrincipal principalOf(String sessionId, X509Certificate certificate) {
+        Entry entry = sessionId != null ? sessions.get(sessionId) : null;
+        if (entry != null && (entry.certificate() == certificate || entry.certificate().equals(certificate))) {
+            hits.increment();
+            return entry.principal();
+        }
+        misses.increment();
+        ClientPrincipal principal = resolve(certificate);
+        if (sessionId != null) {
+            sessions.put(sessionId, new Entry(certificate, principal));
+        }
+        return principal;
+    }
+
+    private double hitRatio() {
+        double hit = hits.count();
+        double total = hit + misses.count();
+        return total > 0 ? hit / total : 0;
+    }
+
+    private ClientPrincipal resolve(X509Certificate certificate) {
+        String subject = certificate.getSubjectX500Principal().getName();
+        try {
+            // RFC 2253 order puts the most specific RDN first; LdapName indexes it last
+            List<Rdn> rdns = new LdapName(subject).getRdns();
+            for (int i = rdns.size() - 1; i >= 0; i--) {
+                Rdn rdn = rdns.get(i);
+                if (rdn.getType().equalsIgnoreCase(nameAttribute)) {
+                    return new ClientPrincipal(rdn.getValue().toString(), subject);
+                }
+            }
+        } catch (InvalidNameException e) {
+            // Not expected from an X500Principal; the full DN still identifies the client
+        }
+        return new ClientPrincipal(subject, subject);
+    }
+}
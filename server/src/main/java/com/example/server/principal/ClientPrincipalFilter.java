@@ -0,0 +1,64 @@
+package com.example.server.principal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.security.cert.X509Certificate;
+
+/**
+ * Gives mTLS requests that the container did not authenticate a {@link ClientPrincipal} derived from
+ * their client certificate, so {@code Principal} arguments of {@code SecureController} and the filters
+ * behind this one see the client's identity. Resolution goes through the {@link ClientPrincipalCache}
+ * under the request's TLS session id.
+ */
+public class ClientPrincipalFilter extends OncePerRequestFilter {
+
+    private static final String HEALTH_PATH = "/api/secure/health";
+
+    private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+    private static final String SESSION_ID_ATTRIBUTE = "jakarta.servlet.request.ssl_session_id";
+
+    private final ClientPrincipalCache cache;
+
+    public ClientPrincipalFilter(ClientPrincipalCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HEALTH_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getUserPrincipal() == null
+                && request.getAttribute(CERTIFICATE_ATTRIBUTE) instanceof X509Certificate[] certificates
+                && certificates.length > 0) {
+            String sessionId = request.getAttribute(SESSION_ID_ATTRIBUTE) instanceof String id ? id : null;
+            request = new PrincipalRequest(request, cache.principalOf(sessionId, certificates[0]));
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static final class PrincipalRequest extends HttpServletRequestWrapper {
+
+        private final Principal principal;
+
+        PrincipalRequest(HttpServletRequest request, Principal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.server.principal;
+
+import com.example.server.ratelimit.RateLimitConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server.api.principal-cache.enabled", matchIfMissing = true)
+public class PrincipalCacheConfiguration {
+
+    // Right before the rate limit, so clients are limited by identity rather than by certificate
+    @Bean
+    public FilterRegistrationBean<ClientPrincipalFilter> clientPrincipalFilter(PrincipalCacheProperties properties,
+                                                                               MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ClientPrincipalFilter> registration =
+                new FilterRegistrationBean<>(new ClientPrincipalFilter(new ClientPrincipalCache(properties, meterRegistry)));
+        registration.addUrlPatterns("/api/secure/*");
+        registration.setOrder(RateLimitConfiguration.ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.server.principal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Resolution of the request {@link java.security.Principal} from the TLS client certificate on
+ * {@code /api/secure/**}, once per TLS session.
+ *
+ * @param enabled       whether mTLS requests without a container principal get one from their client certificate
+ * @param nameAttribute subject attribute used as the principal name (the full subject DN if it is absent)
+ * @param maxSessions   TLS sessions whose principal is remembered at the same time
+ */
+@ConfigurationProperties("server.api.principal-cache")
+public record PrincipalCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("CN") String nameAttribute,
+        @DefaultValue("20480") int maxSessions) {
+}
@@ -0,0 +1,29 @@
+package com.example.server.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server.api.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    /**
+     * Ahead of the other servlet filters, so rejected requests cost as little as possible. Only the
+     * application's connector is covered; the management port has a container of its own.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/secure/*");
+        registration.setOrder(ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.server.ratelimit;
+
+import com.example.server.cache.BoundedMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects requests with 429 and {@code Retry-After} once a client exceeds its token bucket, before
+ * they reach the controller, so one noisy client cannot keep the container threads busy for
+ * everyone else.
+ * <p>
+ * A client is the authenticated {@link Principal} if there is one, otherwise the subject of its TLS
+ * client certificate, otherwise its remote address. Buckets are kept in a {@link BoundedMap} of at
+ * most {@code max-principals} entries. Only buckets that have refilled completely are ever dropped,
+ * as a fresh bucket would behave the same; a client's drained bucket is kept, so it cannot come back
+ * with a new burst. While every tracked client is active, new clients are not admitted to the map
+ * and share a single overflow bucket instead, counted as {@code http.server.requests.rate.limit.overflow};
+ * a full map is swept at most every {@value #SWEEP_INTERVAL_MILLIS} ms, so clients rotating through
+ * addresses cannot make every request scan it.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String HEALTH_PATH = "/api/secure/health";
+
+    private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+    private static final long SWEEP_INTERVAL_MILLIS = 100;
+
+    private final long intervalNanos;
+    private final int burst;
+    private final BoundedMap<String, TokenBucket> buckets;
+    private final TokenBucket overflow;
+    private final AtomicLong nextSweepAt;
+    private final Counter rejected;
+    private final Counter overflowed;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / properties.requestsPerSecond()));
+        this.burst = Math.max(1, properties.burst());
+        this.buckets = new BoundedMap<>(properties.maxPrincipals());
+        long now = System.nanoTime();
+        this.overflow = new TokenBucket(intervalNanos, burst, now);
+        this.nextSweepAt = new AtomicLong(now);
+        this.rejected = Counter.builder("http.server.requests.rate.limited")
+                .description("Requests to /api/secure rejected with 429 by the per-client rate limit")
+                .register(meterRegistry);
+        this.overflowed = Counter.builder("http.server.requests.rate.limit.overflow")
+                .description("Requests from clients not tracked because every tracked client was active")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.rate.limit.clients", buckets, BoundedMap::size)
+                .description("Clients currently tracked by the rate limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Load balancer probes are cheap and must never be throttled
+        return HEALTH_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        long wait = bucketFor(clientOf(request), now).tryAcquire(now);
+        if (wait > 0) {
+            rejected.increment();
+            long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        if (request.getAttribute(CERTIFICATE_ATTRIBUTE) instanceof X509Certificate[] chain && chain.length > 0) {
+            return chain[0].getSubjectX500Principal().getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.isFull() && !sweep(now)) {
+            overflowed.increment();
+            return overflow;
+        }
+        TokenBucket created = new TokenBucket(intervalNanos, burst, now);
+        TokenBucket existing = buckets.putIfAbsent(client, created);
+        return existing != null ? existing : created;
+    }
+
+    // Buckets only refill with time, so sweeping a full map more often would mostly find nothing to drop
+    private boolean sweep(long now) {
+        long due = nextSweepAt.get();
+        long next = now + TimeUnit.MILLISECONDS.toNanos(SWEEP_INTERVAL_MILLIS);
+        if (now - due < 0 || !nextSweepAt.compareAndSet(due, next)) {
+            return false;
+        }
+        return buckets.sweep(bucket -> bucket.isFull(now));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.server.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per-client request rate limit for {@code /api/secure/**} (the health probe is exempt).
+ *
+ * @param enabled           whether the rate limit filter is installed
+ * @param requestsPerSecond sustained rate each client is allowed
+ * @param burst             requests a client that was idle may send at once before the rate applies
+ * @param maxPrincipals     clients tracked at the same time; beyond it new clients share one overflow bucket
+ */
+@ConfigurationProperties("server.api.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500") double requestsPerSecond,
+        @DefaultValue("1000") int burst,
+        @DefaultValue("10000") int maxPrincipals) {
+}
@@ -0,0 +1,49 @@
+package com.example.server.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single {@link System#nanoTime()} value: the time at which the
+ * bucket will be full again (the generic cell rate algorithm form of a token bucket). Each request
+ * pushes that time one emission interval further; a request is rejected when it would be more than
+ * {@code burst} intervals in the future. Taking a token is one compare-and-set, with no refill
+ * bookkeeping and no lock.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long intervalNanos, int burst, long now) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a token will be available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped without affecting its client.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.server.service;
+
+import com.example.common.dto.Message;
+import com.example.common.dto.MessagePage;
+import com.example.server.store.MessageLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pages through the {@link MessageLog}. Stored records already are JSON-encoded messages, so a
+ * JSON page is assembled by copying them from the mapped segments into the response body as they
+ * are; other formats decode them into a {@link MessagePage} for the message converters.
+ */
+@Service
+public class MessageHistoryService {
+
+    private static final byte[] MESSAGES_FIELD = ",\"messages\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "]}".getBytes(StandardCharsets.US_ASCII);
+
+    private final MessageLog messageLog;
+    private final ObjectReader messageReader;
+    private final int maxLimit;
+
+    public MessageHistoryService(MessageLog messageLog,
+                                 ObjectMapper objectMapper,
+                                 @Value("${server.api.history.max-limit:1000}") int maxLimit) {
+        this.messageLog = messageLog;
+        this.messageReader = objectMapper.readerFor(Message.class);
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Renders a {@code MessagePage} starting at {@code fromOffset}, or at the first message received at or
+     * after {@code since} when no offset is given.
+     */
+    public byte[] page(Long fromOffset, LocalDateTime since, int limit) throws IOException {
+        MessageLog.Page page = read(fromOffset, since, limit);
+
+        byte[] head = ("{\"fromOffset\":" + page.fromOffset() + ",\"nextOffset\":" + page.nextOffset())
+                .getBytes(StandardCharsets.US_ASCII);
+        int size = head.length + MESSAGES_FIELD.length + END.length + Math.max(0, page.payloads().size() - 1);
+        for (ByteBuffer payload : page.payloads()) {
+            size += payload.remaining();
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(size).put(head).put(MESSAGES_FIELD);
+        for (int i = 0; i < page.payloads().size(); i++) {
+            if (i > 0) {
+                body.put((byte) ',');
+            }
+            body.put(page.payloads().get(i));
+        }
+        return body.put(END).array();
+    }
+
+    public MessagePage pageMessages(Long fromOffset, LocalDateTime since, int limit) throws IOException {
+        MessageLog.Page page = read(fromOffset, since, limit);
+        List<Message> messages = new ArrayList<>(page.payloads().size());
+        for (ByteBuffer payload : page.payloads()) {
+            byte[] json = new byte[payload.remaining()];
+            payload.get(json);
+            messages.add(messageReader.readValue(json));
+        }
+        return new MessagePage(page.fromOffset(), page.nextOffset(), messages);
+    }
+
+    private MessageLog.Page read(Long fromOffset, LocalDateTime since, int limit) throws IOException {
+        long start = fromOffset != null ? fromOffset : since != null ? messageLog.offsetAt(since) : 0;
+        return messageLog.read(Math.max(0, start), Math.max(1, Math.min(limit, maxLimit)));
+    }
+}
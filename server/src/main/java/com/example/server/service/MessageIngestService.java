@@ -0,0 +1,134 @@
+package com.example.server.service;
+
+import com.example.common.dto.BatchItemResult;
+import com.example.common.dto.Message;
+import com.example.server.store.MessageLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Accepts incoming messages one at a time or in batches and persists them to the {@link MessageLog}
+ * before answering. A batch is processed item by item so that one bad entry is reported in its
+ * {@link BatchItemResult} instead of failing the whole request; all of its appends are queued before
+ * waiting on any, so they usually share one group commit.
+ */
+@Service
+public class MessageIngestService {
+
+    // An accepted item waiting for its group commit, or a rejection decided up front
+    private record PendingItem(int index, Message received, CompletableFuture<Long> offset, String error) {
+    }
+
+    private final MessageLog messageLog;
+    private final ObjectReader messageReader;
+    private final int maxBatchSize;
+
+    public MessageIngestService(MessageLog messageLog,
+                                ObjectMapper objectMapper,
+                                @Value("${server.api.batch.max-items:1000}") int maxBatchSize) {
+        this.messageLog = messageLog;
+        this.messageReader = objectMapper.readerFor(Message.class);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Message receive(Message message, String sender) {
+        Message received = new Message(message.getContent(), sender);
+        try {
+            messageLog.append(received).join();
+        } catch (CompletionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Message could not be persisted", e);
+        }
+        return response(received);
+    }
+
+    public List<BatchItemResult> receiveAll(List<Message> messages, String sender) {
+        checkBatchSize(messages.size());
+        List<PendingItem> pending = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            pending.add(submit(i, messages.get(i), sender));
+        }
+        return complete(pending);
+    }
+
+    /**
+     * Reads one JSON message per line; blank lines are skipped and unparseable lines are rejected individually.
+     * The whole body is read and counted before anything is appended, so an oversized batch leaves nothing behind.
+     */
+    public List<BatchItemResult> receiveNdjson(InputStream body, String sender) throws IOException {
+        List<Message> messages = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkBatchSize(messages.size() + 1);
+            try {
+                messages.add(messageReader.readValue(line));
+                errors.add(null);
+            } catch (JsonProcessingException e) {
+                messages.add(null);
+                errors.add("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        List<PendingItem> pending = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            pending.add(errors.get(i) != null
+                    ? new PendingItem(i, null, null, errors.get(i))
+                    : submit(i, messages.get(i), sender));
+        }
+        return complete(pending);
+    }
+
+    private PendingItem submit(int index, Message message, String sender) {
+        if (message == null || message.getContent() == null) {
+            return new PendingItem(index, null, null, "content is required");
+        }
+        Message received = new Message(message.getContent(), sender);
+        return new PendingItem(index, received, messageLog.append(received), null);
+    }
+
+    private List<BatchItemResult> complete(List<PendingItem> pending) {
+        List<BatchItemResult> results = new ArrayList<>(pending.size());
+        for (PendingItem item : pending) {
+            if (item.error() != null) {
+                results.add(BatchItemResult.rejected(item.index(), item.error()));
+                continue;
+            }
+            try {
+                item.offset().join();
+                results.add(BatchItemResult.accepted(item.index(), response(item.received())));
+            } catch (CompletionException e) {
+                results.add(BatchItemResult.rejected(item.index(), "Message could not be persisted"));
+            }
+        }
+        return results;
+    }
+
+    private static Message response(Message received) {
+        return new Message("Received: " + received.getContent(), received.getSender(), received.getTimestampMicros());
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch exceeds " + maxBatchSize + " items");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.server.service;
+
+import com.example.server.store.MessageLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes stored messages from the {@link MessageLog} as NDJSON straight to the response stream.
+ * <p>
+ * Records are read a page at a time through the log's sparse index and copied from the mapped
+ * segments as they are, so memory use does not grow with the length of the feed. Writes block
+ * while the connection's send buffer (or the HTTP/2 flow-control window) is full, which paces the
+ * feed to the consumer; an explicit flush every {@code server.api.stream.flush-every} records
+ * bounds how long records sit unsent. A feed ends at the last committed record, and after at most
+ * {@code server.api.stream.max-records} records, so it never holds a request thread indefinitely.
+ */
+@Service
+public class MessageStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageStreamService.class);
+
+    private static final ByteBuffer NEWLINE = ByteBuffer.wrap(new byte[]{'\n'}).asReadOnlyBuffer();
+    private static final int PAGE_SIZE = 256;
+
+    private final MessageLog messageLog;
+    private final int flushEvery;
+    private final long maxRecords;
+
+    public MessageStreamService(MessageLog messageLog,
+                                @Value("${server.api.stream.flush-every:64}") int flushEvery,
+                                @Value("${server.api.stream.max-records:100000}") long maxRecords) {
+        this.messageLog = messageLog;
+        this.flushEvery = Math.max(1, flushEvery);
+        this.maxRecords = Math.max(1, maxRecords);
+    }
+
+    /**
+     * Writes up to {@code count} records starting at {@code fromOffset}, or every committed record
+     * from there when {@code count} is negative; either way no more than {@code max-records}.
+     *
+     * @return the number of records written
+     */
+    public long write(OutputStream out, long fromOffset, long count) {
+        long limit = count < 0 ? maxRecords : Math.min(count, maxRecords);
+        long written = 0;
+        long next = Math.max(0, fromOffset);
+        WritableByteChannel channel = Channels.newChannel(out);
+        try {
+            while (written < limit) {
+                MessageLog.Page page = messageLog.read(next, (int) Math.min(PAGE_SIZE, limit - written));
+                if (page.payloads().isEmpty()) {
+                    break;
+                }
+                for (ByteBuffer payload : page.payloads()) {
+                    channel.write(payload);
+                    channel.write(NEWLINE.duplicate());
+                    if (++written % flushEvery == 0) {
+                        out.flush();
+                    }
+                }
+                next = page.nextOffset();
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The consumer closed the stream; nothing is left to report to it
+            log.debug("Message stream ended by the client after {} records: {}", written, e.toString());
+        }
+        return written;
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.server.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of the message log, holding consecutive records starting at {@link #baseOffset()}.
+ * <p>
+ * Record layout (big-endian): {@code int length, int crc32c, long offset, long timestampMicros,
+ * byte[length] payload}. The checksum covers the timestamp and payload; the offset is checked
+ * against the expected sequence instead.
+ * <p>
+ * Reads go through a read-only {@link MappedByteBuffer} of the file, positioned with the segment's
+ * {@link SparseIndex}; payloads are handed out as slices of the mapping without copying or parsing.
+ * The active segment is mapped once at its full capacity, which preallocates the file, and reads
+ * stop at what has been written; the unused tail is cut off when the segment is closed, so a sealed
+ * segment is mapped once at its final size. A zero tail left by a crash fails recovery's offset or
+ * checksum check like any torn write. A segment removed by retention keeps its mapping after the
+ * file is unlinked, so reads already going through it finish; the space is released once the
+ * mapping is garbage collected. Segments are assumed to stay below 2 GB so positions fit the
+ * buffer API.
+ */
+final class LogSegment implements Closeable {
+
+    static final int HEADER_SIZE = 24;
+    private static final int TIMESTAMP_POSITION = 16;
+    static final String SUFFIX = ".log";
+
+    private final Path file;
+    private final long baseOffset;
+    private final SparseIndex index;
+    private final long capacity;
+    private FileChannel channel;
+    private volatile MappedByteBuffer mapped;
+    // Written by the log's writer thread only, read by anyone asking for the log's end
+    private volatile long size;
+    private volatile long nextOffset;
+
+    private LogSegment(Path file, long baseOffset, long size, long nextOffset, SparseIndex index, long capacity) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.index = index;
+        this.capacity = capacity;
+        this.size = size;
+        this.nextOffset = nextOffset;
+    }
+
+    static Path fileFor(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    }
+
+    static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static LogSegment create(Path directory, long baseOffset, int indexInterval, long capacity) throws IOException {
+        LogSegment segment = new LogSegment(fileFor(directory, baseOffset), baseOffset, 0, baseOffset,
+                new SparseIndex(indexInterval), capacity);
+        segment.channel = FileChannel.open(segment.file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.mapActive();
+        return segment;
+    }
+
+    /**
+     * Scans the file and keeps every record up to the first incomplete or corrupt one, rebuilding the
+     * index on the way. A torn tail, as left by a crash during a write, is cut off when {@code truncate} is set,
+     * and the segment is reopened for appends up to {@code capacity}.
+     */
+    static LogSegment recover(Path file, boolean truncate, int indexInterval, long capacity) throws IOException {
+        long baseOffset = baseOffsetOf(file);
+        SparseIndex index = new SparseIndex(indexInterval);
+        long valid = 0;
+        long offset = baseOffset;
+        CRC32C crc = new CRC32C();
+        ByteBuffer timestamp = ByteBuffer.allocate(Long.BYTES);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), 1 << 16))) {
+            long fileSize = Files.size(file);
+            while (valid + HEADER_SIZE <= fileSize) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                long recordOffset = in.readLong();
+                long timestampMicros = in.readLong();
+                if (length < 0 || recordOffset != offset || valid + HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+                byte[] payload = in.readNBytes(length);
+                crc.reset();
+                crc.update(timestamp.clear().putLong(0, timestampMicros));
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                index.maybeAdd(offset, valid, timestampMicros);
+                valid += HEADER_SIZE + length;
+                offset++;
+            }
+        } catch (EOFException ignored) {
+            // Shorter than the size check assumed; what was read so far stands
+        }
+        LogSegment segment = new LogSegment(file, baseOffset, valid, offset, index, truncate ? capacity : valid);
+        if (truncate) {
+            segment.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (segment.channel.size() > valid) {
+                segment.channel.truncate(valid);
+            }
+            segment.channel.position(valid);
+            segment.mapActive();
+        }
+        return segment;
+    }
+
+    static int checksum(long timestampMicros, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, timestampMicros));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Notes a record about to be written at {@code position}, for the sparse index.
+     */
+    void indexRecord(long offset, long position, long timestampMicros) {
+        index.maybeAdd(offset, position, timestampMicros);
+    }
+
+    /**
+     * Adds read-only views of the payloads from {@code fromOffset} on to {@code payloads}, stopping
+     * before {@code endOffset} or when {@code payloads} holds {@code max} entries.
+     *
+     * @return the offset after the last record read
+     */
+    long read(long fromOffset, long endOffset, int max, List<ByteBuffer> payloads) throws IOException {
+        long[] entry = index.floorByOffset(fromOffset);
+        if (entry == null) {
+            return fromOffset;
+        }
+        ByteBuffer buffer = mapped();
+        long offset = entry[0];
+        int position = (int) entry[1];
+        while (offset < endOffset && payloads.size() < max && position + HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (offset >= fromOffset) {
+                payloads.add(buffer.slice(position + HEADER_SIZE, length));
+            }
+            position += HEADER_SIZE + length;
+            offset++;
+        }
+        return Math.max(offset, fromOffset);
+    }
+
+    /**
+     * First offset before {@code endOffset} whose record was received at or after {@code timestampMicros},
+     * or {@code endOffset} if there is none in this segment.
+     */
+    long offsetAt(long timestampMicros, long endOffset) throws IOException {
+        long[] entry = index.floorByTimestamp(timestampMicros);
+        if (entry == null) {
+            return endOffset;
+        }
+        ByteBuffer buffer = mapped();
+        long offset = entry[0];
+        int position = (int) entry[1];
+        while (offset < endOffset && position + HEADER_SIZE <= buffer.limit()) {
+            if (buffer.getLong(position + TIMESTAMP_POSITION) >= timestampMicros) {
+                return offset;
+            }
+            position += HEADER_SIZE + buffer.getInt(position);
+            offset++;
+        }
+        return endOffset;
+    }
+
+    long firstTimestamp() {
+        return index.firstTimestamp();
+    }
+
+    // The readable part of the mapping; a sealed segment, or an active one outgrown by an oversized record, is mapped
+    // as far as it has been written
+    private ByteBuffer mapped() throws IOException {
+        long written = size;
+        MappedByteBuffer current = mapped;
+        if (current == null || current.capacity() < written) {
+            synchronized (this) {
+                current = mapped;
+                if (current == null || current.capacity() < written) {
+                    try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        current = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, written);
+                    }
+                    mapped = current;
+                }
+            }
+        }
+        // Absolute reads only, but a duplicate keeps callers from sharing the position and limit
+        return current.duplicate().limit((int) written);
+    }
+
+    // Writer side only: maps the active segment at its capacity through the write channel, extending the file
+    private void mapActive() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(capacity, size));
+    }
+
+    /**
+     * Writes the buffer, which holds {@code records} complete records, at the end of the segment.
+     */
+    void write(ByteBuffer records, int count) throws IOException {
+        long written = 0;
+        while (records.hasRemaining()) {
+            written += channel.write(records);
+        }
+        size += written;
+        nextOffset += count;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Drops everything after {@code newSize}, used to undo a group commit that failed part-way.
+     * A segment that was already closed is reopened for writing.
+     */
+    void truncate(long newSize, long newNextOffset) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        channel.truncate(newSize);
+        channel.position(newSize);
+        size = newSize;
+        nextOffset = newNextOffset;
+        index.truncate(newNextOffset);
+        mapActive();
+    }
+
+    /**
+     * Seals the segment and removes its file. The final mapping is made first and kept, so readers
+     * that found the segment before it was removed never need to open the deleted file.
+     */
+    void delete() throws IOException {
+        close();
+        mapped();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Seals the segment: the preallocated tail is cut off and the next read maps the final size.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            channel.close();
+            channel = null;
+            mapped = null;
+        }
+    }
+}
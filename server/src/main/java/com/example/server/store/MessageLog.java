@@ -0,0 +1,326 @@
+package com.example.server.store;
+
+import com.example.common.dto.Message;
+import com.example.common.json.TimestampCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of received messages, stored as a sequence of segment files.
+ * <p>
+ * Callers serialize their message and hand it to a single writer thread. The writer takes
+ * everything that queued up while the previous fsync was running, writes it with as few
+ * {@code write} calls as the buffer allows and fsyncs once for the whole group, then completes
+ * each caller's future with the record's offset. The cost of an fsync is shared by every append
+ * that arrived during it, so throughput grows with concurrency instead of being capped by disk
+ * latency. On startup the existing segments are scanned, a torn tail left by a crash is cut off,
+ * and appending resumes at the next offset.
+ * <p>
+ * Reads only see records whose group commit has completed. They locate the segment by offset, then
+ * the record through the segment's sparse index, and return the payloads as slices of the
+ * memory-mapped file.
+ */
+@Component
+public class MessageLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageLog.class);
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Payloads of the records from {@code fromOffset} up to (excluding) {@code nextOffset}, as
+     * read-only views of the mapped segments.
+     */
+    public record Page(long fromOffset, long nextOffset, List<ByteBuffer> payloads) {
+    }
+
+    private record PendingAppend(byte[] payload, long timestampMicros, int checksum,
+                                 CompletableFuture<Long> offset) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentSize;
+    private final long retentionMillis;
+    private final int maxBatch;
+    private final int indexInterval;
+    private final BlockingQueue<PendingAppend> queue;
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile long committedOffset;
+    private LogSegment active;
+
+    public MessageLog(ObjectMapper objectMapper, MessageLogProperties properties) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = properties.directory();
+        this.segmentSize = properties.segmentSize().toBytes();
+        this.retentionMillis = properties.retention().toMillis();
+        this.maxBatch = properties.maxBatch();
+        this.indexInterval = (int) properties.indexInterval().toBytes();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        recover();
+        this.writer = new Thread(this::runWriter, "message-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the message for the next group commit. The returned future completes with the record's
+     * offset once it has been fsynced, or exceptionally if it could not be written.
+     */
+    public CompletableFuture<Long> append(Message message) {
+        CompletableFuture<Long> offset = new CompletableFuture<>();
+        if (!running) {
+            offset.completeExceptionally(new IllegalStateException("Message log is closed"));
+            return offset;
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(message);
+            long timestampMicros = message.getTimestampMicros();
+            queue.put(new PendingAppend(payload, timestampMicros,
+                    LogSegment.checksum(timestampMicros, payload), offset));
+        } catch (JsonProcessingException e) {
+            offset.completeExceptionally(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offset.completeExceptionally(e);
+        }
+        return offset;
+    }
+
+    /**
+     * Reads up to {@code limit} committed records starting at {@code fromOffset}. An offset that
+     * retention already removed starts at the oldest remaining record instead.
+     */
+    public Page read(long fromOffset, int limit) throws IOException {
+        long end = committedOffset;
+        Map.Entry<Long, LogSegment> first = segments.floorEntry(fromOffset);
+        if (first == null) {
+            first = segments.firstEntry();
+            fromOffset = first != null ? first.getKey() : fromOffset;
+        }
+        List<ByteBuffer> payloads = new ArrayList<>(Math.min(limit, 1024));
+        long start = Math.min(fromOffset, end);
+        long next = start;
+        if (first != null) {
+            for (LogSegment segment : segments.tailMap(first.getKey()).values()) {
+                if (next >= end || payloads.size() >= limit) {
+                    break;
+                }
+                next = segment.read(Math.max(next, segment.baseOffset()), end, limit, payloads);
+            }
+        }
+        return new Page(start, next, payloads);
+    }
+
+    /**
+     * First committed offset received at or after {@code timestamp}, or the next offset to be written
+     * if there is none. Receive times are taken just before appending, so they are ascending up to
+     * the jitter between concurrent requests.
+     */
+    public long offsetAt(LocalDateTime timestamp) throws IOException {
+        long micros = TimestampCodec.toEpochMicros(timestamp);
+        long end = committedOffset;
+        LogSegment candidate = null;
+        for (LogSegment segment : segments.values()) {
+            if (segment.firstTimestamp() >= micros && candidate != null) {
+                break;
+            }
+            candidate = segment;
+        }
+        if (candidate == null) {
+            return end;
+        }
+        long offset = candidate.offsetAt(micros, end);
+        Map.Entry<Long, LogSegment> next = segments.higherEntry(candidate.baseOffset());
+        // Everything in the candidate is older; the answer is the start of the following segment
+        return offset == end && next != null && next.getKey() < end ? next.getKey() : offset;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws InterruptedException, IOException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        for (LogSegment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(LogSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        long records = 0;
+        for (int i = 0; i < files.size(); i++) {
+            boolean last = i == files.size() - 1;
+            LogSegment segment = LogSegment.recover(files.get(i), last, indexInterval, segmentSize);
+            segments.put(segment.baseOffset(), segment);
+            records += segment.nextOffset() - segment.baseOffset();
+        }
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null) {
+            active = LogSegment.create(directory, 0, indexInterval, segmentSize);
+            segments.put(0L, active);
+        }
+        committedOffset = active.nextOffset();
+        log.info("Message log {}: replayed {} records in {} segments, next offset {}",
+                directory.toAbsolutePath(), records, segments.size(), active.nextOffset());
+        deleteExpiredSegments();
+    }
+
+    private void runWriter() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        queue.forEach(pending -> pending.offset().completeExceptionally(
+                new IllegalStateException("Message log is closed")));
+    }
+
+    private void commit(List<PendingAppend> batch) {
+        LogSegment startSegment = active;
+        long startSize = active.size();
+        long startOffset = active.nextOffset();
+        try {
+            int buffered = 0;
+            for (PendingAppend pending : batch) {
+                int recordSize = LogSegment.HEADER_SIZE + pending.payload().length;
+                if (active.size() + writeBuffer.position() + recordSize > segmentSize
+                        && active.size() + writeBuffer.position() > 0) {
+                    flushBuffer(buffered);
+                    buffered = 0;
+                    roll();
+                }
+                if (recordSize > writeBuffer.remaining()) {
+                    flushBuffer(buffered);
+                    buffered = 0;
+                }
+                long offset = active.nextOffset() + buffered;
+                active.indexRecord(offset, active.size() + writeBuffer.position(), pending.timestampMicros());
+                if (recordSize > writeBuffer.capacity()) {
+                    // Larger than the whole buffer: write it on its own through a heap buffer
+                    active.write(encode(ByteBuffer.allocate(recordSize), pending, offset).flip(), 1);
+                } else {
+                    encode(writeBuffer, pending, offset);
+                    buffered++;
+                }
+            }
+            flushBuffer(buffered);
+            active.force();
+            committedOffset = active.nextOffset();
+        } catch (IOException e) {
+            writeBuffer.clear();
+            log.error("Group commit of {} messages failed", batch.size(), e);
+            rollBack(startSegment, startSize, startOffset);
+            UncheckedIOException failure = new UncheckedIOException("Message could not be persisted", e);
+            batch.forEach(pending -> pending.offset().completeExceptionally(failure));
+            return;
+        }
+        long offset = active.nextOffset() - batch.size();
+        for (PendingAppend pending : batch) {
+            pending.offset().complete(offset++);
+        }
+    }
+
+    private static ByteBuffer encode(ByteBuffer buffer, PendingAppend pending, long offset) {
+        return buffer.putInt(pending.payload().length)
+                .putInt(pending.checksum())
+                .putLong(offset)
+                .putLong(pending.timestampMicros())
+                .put(pending.payload());
+    }
+
+    private void flushBuffer(int records) throws IOException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        try {
+            active.write(writeBuffer, records);
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        active.close();
+        active = LogSegment.create(directory, active.nextOffset(), indexInterval, segmentSize);
+        segments.put(active.baseOffset(), active);
+        deleteExpiredSegments();
+    }
+
+    // Only the writer thread and startup get here; a failed batch is cut out of the segment it started in
+    private void rollBack(LogSegment startSegment, long startSize, long startOffset) {
+        try {
+            while (active != startSegment) {
+                LogSegment partial = segments.remove(active.baseOffset());
+                partial.close();
+                Files.deleteIfExists(partial.file());
+                active = segments.lastEntry().getValue();
+            }
+            active.truncate(startSize, startOffset);
+        } catch (IOException e) {
+            // The unsynced tail fails its checksum or offset check on the next recovery
+            log.error("Could not roll back failed group commit in {}", active.file(), e);
+        }
+    }
+
+    private void deleteExpiredSegments() throws IOException {
+        FileTime cutoff = FileTime.fromMillis(System.currentTimeMillis() - retentionMillis);
+        for (LogSegment segment : segments.values()) {
+            if (segment == active) {
+                continue;
+            }
+            if (Files.getLastModifiedTime(segment.file()).compareTo(cutoff) < 0) {
+                segments.remove(segment.baseOffset());
+                segment.delete();
+                log.info("Deleted message log segment {} (older than retention)", segment.file().getFileName());
+            }
+        }
+    }
+}
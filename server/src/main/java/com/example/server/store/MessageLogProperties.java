@@ -0,0 +1,28 @@
+package com.example.server.store;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * On-disk message log written by {@code POST /api/secure/message} and {@code POST /api/secure/messages}.
+ *
+ * @param directory     where segment files are kept; created on startup
+ * @param segmentSize   size at which the active segment is closed and a new one started
+ * @param retention     closed segments last written longer ago than this are deleted
+ * @param maxBatch      most appends written and fsynced together in one group commit
+ * @param queueCapacity appends waiting for the writer before further callers block
+ * @param indexInterval bytes of records between two entries of a segment's in-memory sparse index
+ */
+@ConfigurationProperties("server.api.message-log")
+public record MessageLogProperties(
+        @DefaultValue("data/message-log") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("4096") int maxBatch,
+        @DefaultValue("65536") int queueCapacity,
+        @DefaultValue("4KB") DataSize indexInterval) {
+}
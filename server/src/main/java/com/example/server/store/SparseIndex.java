@@ -0,0 +1,84 @@
+package com.example.server.store;
+
+import java.util.Arrays;
+
+/**
+ * In-memory index of one segment with an entry for roughly every {@code interval} bytes of records:
+ * offset, file position and timestamp of the first record at or after each step. A lookup is a
+ * binary search followed by a short forward scan of at most one interval in the mapped file.
+ * <p>
+ * Entries are appended by the log's writer (or the startup scan) in increasing offset order and
+ * read by request threads, hence the synchronization; it is taken once per interval on writes.
+ */
+final class SparseIndex {
+
+    private final int interval;
+    private long[] offsets = new long[64];
+    private long[] positions = new long[64];
+    private long[] timestamps = new long[64];
+    private int size;
+    private long lastIndexedPosition = -1;
+
+    SparseIndex(int interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Called for every record in file order; only keeps it when it starts a new interval.
+     */
+    synchronized void maybeAdd(long offset, long position, long timestampMicros) {
+        if (lastIndexedPosition >= 0 && position - lastIndexedPosition < interval) {
+            return;
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+        }
+        offsets[size] = offset;
+        positions[size] = position;
+        timestamps[size] = timestampMicros;
+        size++;
+        lastIndexedPosition = position;
+    }
+
+    /**
+     * Entry at or before {@code offset} as {@code {offset, position}}, or {@code null} if the segment has none yet.
+     */
+    synchronized long[] floorByOffset(long offset) {
+        int i = floor(offsets, offset);
+        return i < 0 ? null : new long[]{offsets[i], positions[i]};
+    }
+
+    /**
+     * Last entry whose record is older than {@code timestampMicros} (or the first entry), as
+     * {@code {offset, position}}; records from there on are scanned for the first one at or after it.
+     */
+    synchronized long[] floorByTimestamp(long timestampMicros) {
+        if (size == 0) {
+            return null;
+        }
+        int i = Math.max(0, floor(timestamps, timestampMicros - 1));
+        return new long[]{offsets[i], positions[i]};
+    }
+
+    synchronized long firstTimestamp() {
+        return size == 0 ? Long.MAX_VALUE : timestamps[0];
+    }
+
+    /**
+     * Forgets entries for records at or after {@code offset}, after the log cut them off.
+     */
+    synchronized void truncate(long offset) {
+        while (size > 0 && offsets[size - 1] >= offset) {
+            size--;
+        }
+        lastIndexedPosition = size == 0 ? -1 : positions[size - 1];
+    }
+
+    // Index of the last element <= key among the first size elements, -1 if none
+    private int floor(long[] values, long key) {
+        int i = Arrays.binarySearch(values, 0, size, key);
+        return i >= 0 ? i : -i - 2;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.server.tls;
+
+import com.example.server.cache.BoundedMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers client certificate chains that passed PKIX validation, keyed by the SHA-256 fingerprint
+ * of the client certificate and the handshake parameters it was checked against, so clients that
+ * reconnect without resuming their session skip path building against the trust store on the next
+ * full handshake.
+ * <p>
+ * A validation is remembered until the earliest expiry in the chain or {@code cache-ttl}, whichever
+ * comes first. Everything is forgotten whenever the trust material changes ({@link #invalidateAll()},
+ * called by {@link KeyStoreReloader} for a new trust store or revocation list); a validation that was
+ * running while that happened is not remembered.
+ * <p>
+ * Lookups are counted as {@code tls.client.validation.cache}, tagged hit or miss. The
+ * {@link BoundedMap} holds at most {@code cache-max-entries} certificates: when it is full, expired
+ * entries are dropped, then an arbitrary tenth, which only costs those clients one more validation.
+ */
+@Component
+public class CertificateValidationCache {
+
+    private final long ttlMillis;
+    private final BoundedMap<String, Long> expiries;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CertificateValidationCache(ClientCertificateValidationProperties properties, MeterRegistry meterRegistry) {
+        this.ttlMillis = Math.max(0, properties.cacheTtl().toMillis());
+        this.expiries = new BoundedMap<>(properties.cacheMaxEntries());
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("tls.client.validation.cache.size", expiries, BoundedMap::size)
+                .description("Client certificates whose chain validation is currently remembered")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tls.client.validation.cache")
+                .description("Client certificate chain validations by cache result (miss = PKIX path built)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param context the authentication type and whatever else of the handshake the validation depended on
+     * @return whether this chain was validated in this context and the result is still current
+     */
+    boolean isValidated(X509Certificate[] chain, String context) {
+        String key = keyOf(chain, context);
+        Long expiresAt = key != null ? expiries.get(key) : null;
+        if (expiresAt != null && System.currentTimeMillis() < expiresAt) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Marks the current trust material; pass it to {@link #validated} once the validation succeeded.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    void validated(X509Certificate[] chain, String context, long validatedGeneration) {
+        String key = keyOf(chain, context);
+        if (key == null || ttlMillis == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        for (X509Certificate certificate : chain) {
+            expiresAt = Math.min(expiresAt, certificate.getNotAfter().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        expiries.put(key, expiresAt, expired -> expired <= now);
+        // Trust material changed while this chain was being validated against the old one
+        if (generation.get() != validatedGeneration) {
+            expiries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        expiries.clear();
+    }
+
+    private static String keyOf(X509Certificate[] chain, String context) {
+        if (chain == null || chain.length == 0) {
+            return null;
+        }
+        try {
+            byte[] fingerprint = MessageDigest.getInstance("SHA-256").digest(chain[0].getEncoded());
+            return context + ':' + HexFormat.of().formatHex(fingerprint);
+        } catch (CertificateEncodingException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.server.tls;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Validation of client certificate chains on the secure connector (with {@code server.ssl.client-auth}).
+ *
+ * @param cacheEnabled    whether successful chain validations are remembered by client certificate fingerprint
+ * @param cacheTtl        how long a validation is remembered at most; never beyond the chain's earliest expiry
+ * @param cacheMaxEntries client certificates remembered at the same time; expired ones are dropped first
+ * @param revocationList  optional CRL file (may hold the CRLs of several CAs); when set, revocation is checked
+ *                        and the file is watched like the stores, a change invalidating every cached validation
+ */
+@ConfigurationProperties("server.ssl.client-validation")
+public record ClientCertificateValidationProperties(
+        @DefaultValue("true") boolean cacheEnabled,
+        @DefaultValue("1h") Duration cacheTtl,
+        @DefaultValue("10000") int cacheMaxEntries,
+        String revocationList) {
+}
@@ -0,0 +1,125 @@
+package com.example.server.tls;
+
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Serves an ECDSA certificate next to the RSA one when {@code server.ssl.key-store} holds both.
+ * <p>
+ * Spring Boot configures the secure connector with a single certificate of undefined type. When
+ * the store also has a key entry under {@code server.ssl.ecdsa.key-alias}, that certificate is
+ * replaced by an RSA and an EC certificate read from the same store, each with its own SSL
+ * context. Tomcat then picks, per handshake, the first certificate compatible with a cipher suite
+ * the client offers: clients that list ECDHE-ECDSA suites get the ECDSA certificate, whose
+ * signatures are far cheaper to compute, the rest keep getting RSA. TLS 1.3 suites do not name an
+ * authentication algorithm, so the choice rests on the TLS 1.2 suites clients offer alongside them;
+ * a client offering none that match gets the RSA certificate.
+ * <p>
+ * Both certificates keep using the connector's key store, so {@link KeyStoreReloader} refreshes
+ * them together. Only the application server's factory is customized.
+ */
+@Component
+public class EcdsaCertificateCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private static final Logger log = LoggerFactory.getLogger(EcdsaCertificateCustomizer.class);
+
+    private final EcdsaCertificateProperties properties;
+
+    public EcdsaCertificateCustomizer(EcdsaCertificateProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        if (!properties.enabled()) {
+            return;
+        }
+        factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractHttp11JsseProtocol<?> protocol
+                    && protocol.isSSLEnabled()) {
+                for (SSLHostConfig sslHostConfig : protocol.findSslHostConfigs()) {
+                    try {
+                        addEcdsaCertificate(sslHostConfig);
+                    } catch (IOException | KeyStoreException e) {
+                        throw new IllegalStateException("Cannot read the key store of host "
+                                + sslHostConfig.getHostName(), e);
+                    }
+                }
+            }
+        });
+    }
+
+    private void addEcdsaCertificate(SSLHostConfig sslHostConfig) throws IOException, KeyStoreException {
+        Set<SSLHostConfigCertificate> certificates = sslHostConfig.getCertificates();
+        if (certificates.size() != 1) {
+            // Already configured with typed certificates
+            return;
+        }
+        SSLHostConfigCertificate certificate = certificates.iterator().next();
+        KeyStore keyStore = certificate.getCertificateKeystore();
+        if (keyStore == null || !keyStore.isKeyEntry(properties.keyAlias())) {
+            log.info("No ECDSA key entry [{}] in the key store of host {}; serving a single certificate",
+                    properties.keyAlias(), sslHostConfig.getHostName());
+            return;
+        }
+        String alias = certificate.getCertificateKeyAlias() != null
+                ? certificate.getCertificateKeyAlias()
+                : firstKeyAlias(keyStore);
+        String rsaAlgorithm = keyAlgorithm(keyStore, alias);
+        String ecAlgorithm = keyAlgorithm(keyStore, properties.keyAlias());
+        if (!"RSA".equals(rsaAlgorithm) || !"EC".equals(ecAlgorithm)) {
+            log.warn("Expected an RSA key under [{}] and an EC key under [{}] for host {}, found {} and {}; "
+                            + "serving a single certificate",
+                    alias, properties.keyAlias(), sslHostConfig.getHostName(), rsaAlgorithm, ecAlgorithm);
+            return;
+        }
+
+        // A certificate of undefined type cannot share the host with others, so it is replaced
+        certificates.clear();
+        sslHostConfig.addCertificate(copyOf(certificate, keyStore, SSLHostConfigCertificate.Type.RSA, alias));
+        sslHostConfig.addCertificate(copyOf(certificate, keyStore, SSLHostConfigCertificate.Type.EC,
+                properties.keyAlias()));
+        log.info("Serving RSA [{}] and ECDSA [{}] certificates for host {}",
+                alias, properties.keyAlias(), sslHostConfig.getHostName());
+    }
+
+    private static SSLHostConfigCertificate copyOf(SSLHostConfigCertificate certificate, KeyStore keyStore,
+                                                   SSLHostConfigCertificate.Type type, String alias) {
+        SSLHostConfigCertificate copy = new SSLHostConfigCertificate(certificate.getSSLHostConfig(), type);
+        copy.setCertificateKeystore(keyStore);
+        copy.setCertificateKeystorePassword(certificate.getCertificateKeystorePassword());
+        if (certificate.getCertificateKeyPassword() != null) {
+            copy.setCertificateKeyPassword(certificate.getCertificateKeyPassword());
+        }
+        copy.setCertificateKeyAlias(alias);
+        return copy;
+    }
+
+    // Tomcat's own choice when no alias is configured
+    private static String firstKeyAlias(KeyStore keyStore) throws KeyStoreException {
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (keyStore.isKeyEntry(alias)) {
+                return alias;
+            }
+        }
+        return null;
+    }
+
+    private static String keyAlgorithm(KeyStore keyStore, String alias) throws KeyStoreException {
+        Certificate certificate = alias != null ? keyStore.getCertificate(alias) : null;
+        return certificate != null ? certificate.getPublicKey().getAlgorithm() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.server.tls;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * An ECDSA certificate served next to the RSA one from {@code server.ssl.key-store}.
+ *
+ * @param enabled  whether the connector looks for the ECDSA key entry at all
+ * @param keyAlias alias of the ECDSA key entry in {@code server.ssl.key-store}; when the store has
+ *                 no key entry under it, only the {@code server.ssl.key-alias} certificate is served
+ */
+@ConfigurationProperties("server.ssl.ecdsa")
+public record EcdsaCertificateProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("server-ec") String keyAlias) {
+}
@@ -0,0 +1,139 @@
+package com.example.server.tls;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Delegating {@link SSLEngine} that reports each completed handshake to a {@link TlsHandshakeListener}.
+ * <p>
+ * A handshake counts as resumed when the negotiated session was created before this engine: JSSE
+ * keeps the original creation time both for TLS 1.2 cache hits and TLS 1.3 ticket resumption, while
+ * a full handshake always produces a brand new session.
+ */
+class HandshakeTrackingSslEngine extends SSLEngine {
+
+    private final SSLEngine delegate;
+    private final TlsHandshakeListener listener;
+    private final long createdAt = System.currentTimeMillis();
+
+    HandshakeTrackingSslEngine(SSLEngine delegate, TlsHandshakeListener listener) {
+        super(delegate.getPeerHost(), delegate.getPeerPort());
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+        return track(delegate.wrap(srcs, offset, length, dst));
+    }
+
+    @Override
+    public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+        return track(delegate.unwrap(src, dsts, offset, length));
+    }
+
+    private SSLEngineResult track(SSLEngineResult result) {
+        if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+            SSLSession session = delegate.getSession();
+            listener.handshakeCompleted(session, session.getCreationTime() < createdAt);
+        }
+        return result;
+    }
+
+    @Override
+    public Runnable getDelegatedTask() { return delegate.getDelegatedTask(); }
+
+    @Override
+    public void closeInbound() throws SSLException { delegate.closeInbound(); }
+
+    @Override
+    public boolean isInboundDone() { return delegate.isInboundDone(); }
+
+    @Override
+    public void closeOutbound() { delegate.closeOutbound(); }
+
+    @Override
+    public boolean isOutboundDone() { return delegate.isOutboundDone(); }
+
+    @Override
+    public String[] getSupportedCipherSuites() { return delegate.getSupportedCipherSuites(); }
+
+    @Override
+    public String[] getEnabledCipherSuites() { return delegate.getEnabledCipherSuites(); }
+
+    @Override
+    public void setEnabledCipherSuites(String[] suites) { delegate.setEnabledCipherSuites(suites); }
+
+    @Override
+    public String[] getSupportedProtocols() { return delegate.getSupportedProtocols(); }
+
+    @Override
+    public String[] getEnabledProtocols() { return delegate.getEnabledProtocols(); }
+
+    @Override
+    public void setEnabledProtocols(String[] protocols) { delegate.setEnabledProtocols(protocols); }
+
+    @Override
+    public SSLSession getSession() { return delegate.getSession(); }
+
+    @Override
+    public SSLSession getHandshakeSession() { return delegate.getHandshakeSession(); }
+
+    @Override
+    public void beginHandshake() throws SSLException { delegate.beginHandshake(); }
+
+    @Override
+    public SSLEngineResult.HandshakeStatus getHandshakeStatus() { return delegate.getHandshakeStatus(); }
+
+    @Override
+    public void setUseClientMode(boolean mode) { delegate.setUseClientMode(mode); }
+
+    @Override
+    public boolean getUseClientMode() { return delegate.getUseClientMode(); }
+
+    @Override
+    public void setNeedClientAuth(boolean need) { delegate.setNeedClientAuth(need); }
+
+    @Override
+    public boolean getNeedClientAuth() { return delegate.getNeedClientAuth(); }
+
+    @Override
+    public void setWantClientAuth(boolean want) { delegate.setWantClientAuth(want); }
+
+    @Override
+    public boolean getWantClientAuth() { return delegate.getWantClientAuth(); }
+
+    @Override
+    public void setEnableSessionCreation(boolean flag) { delegate.setEnableSessionCreation(flag); }
+
+    @Override
+    public boolean getEnableSessionCreation() { return delegate.getEnableSessionCreation(); }
+
+    @Override
+    public SSLParameters getSSLParameters() { return delegate.getSSLParameters(); }
+
+    @Override
+    public void setSSLParameters(SSLParameters params) { delegate.setSSLParameters(params); }
+
+    @Override
+    public String getApplicationProtocol() { return delegate.getApplicationProtocol(); }
+
+    @Override
+    public String getHandshakeApplicationProtocol() { return delegate.getHandshakeApplicationProtocol(); }
+
+    @Override
+    public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+        delegate.setHandshakeApplicationProtocolSelector(selector);
+    }
+
+    @Override
+    public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+        return delegate.getHandshakeApplicationProtocolSelector();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.server.tls;
+
+import org.apache.tomcat.util.net.SSLContext;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
+import org.apache.tomcat.util.net.SSLUtil;
+import org.apache.tomcat.util.net.jsse.JSSEImplementation;
+import org.apache.tomcat.util.net.jsse.JSSEUtil;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * Tomcat JSSE implementation whose engines report completed handshakes to the registered
+ * {@link TlsHandshakeListener}, and whose contexts take their key and trust managers through
+ * {@link ReloadableKeyManager} and {@link ReloadableTrustManager}, so {@link KeyStoreReloader} can
+ * replace the stores without replacing the context. Client certificate checks go through the
+ * {@link CertificateValidationCache} when one is set.
+ * <p>
+ * Tomcat instantiates SSL implementations reflectively by class name, so the Spring-managed
+ * listener and cache are handed over through {@link #setHandshakeListener(TlsHandshakeListener)}
+ * and {@link #setValidationCache(CertificateValidationCache)}.
+ */
+public class InstrumentedJsseImplementation extends JSSEImplementation {
+
+    private static volatile TlsHandshakeListener handshakeListener = (session, resumed) -> { };
+    private static volatile CertificateValidationCache validationCache;
+
+    public static void setHandshakeListener(TlsHandshakeListener listener) {
+        handshakeListener = listener;
+    }
+
+    public static void setValidationCache(CertificateValidationCache cache) {
+        validationCache = cache;
+    }
+
+    private static X509ExtendedTrustManager cached(X509ExtendedTrustManager trustManager) {
+        CertificateValidationCache cache = validationCache;
+        return cache != null ? new ValidationCachingTrustManager(trustManager, cache) : trustManager;
+    }
+
+    @Override
+    public SSLUtil getSSLUtil(SSLHostConfigCertificate certificate) {
+        return new InstrumentedJsseUtil(certificate);
+    }
+
+    static class InstrumentedJsseUtil extends JSSEUtil {
+
+        InstrumentedJsseUtil(SSLHostConfigCertificate certificate) {
+            super(certificate);
+        }
+
+        @Override
+        public SSLContext createSSLContextInternal(List<String> negotiableProtocols) throws NoSuchAlgorithmException {
+            return new InstrumentedSslContext(super.createSSLContextInternal(negotiableProtocols));
+        }
+
+        @Override
+        public KeyManager[] getKeyManagers() throws Exception {
+            KeyManager[] keyManagers = super.getKeyManagers();
+            for (int i = 0; keyManagers != null && i < keyManagers.length; i++) {
+                if (keyManagers[i] instanceof X509ExtendedKeyManager keyManager) {
+                    keyManagers[i] = new ReloadableKeyManager(keyManager);
+                }
+            }
+            return keyManagers;
+        }
+
+        @Override
+        public TrustManager[] getTrustManagers() throws Exception {
+            TrustManager[] trustManagers = super.getTrustManagers();
+            for (int i = 0; trustManagers != null && i < trustManagers.length; i++) {
+                if (trustManagers[i] instanceof X509ExtendedTrustManager trustManager) {
+                    trustManagers[i] = new ReloadableTrustManager(cached(trustManager));
+                }
+            }
+            return trustManagers;
+        }
+    }
+
+    static class InstrumentedSslContext implements SSLContext {
+
+        private final SSLContext delegate;
+        private KeyManager[] keyManagers;
+        private TrustManager[] trustManagers;
+
+        InstrumentedSslContext(SSLContext delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Points the managers this context was initialised with at new ones, position by position.
+         *
+         * @return false if the context has managers that cannot be swapped, in which case nothing was changed
+         */
+        synchronized boolean swap(KeyManager[] newKeyManagers, TrustManager[] newTrustManagers) {
+            if (!swappable(keyManagers, newKeyManagers, ReloadableKeyManager.class, X509ExtendedKeyManager.class)
+                    || !swappable(trustManagers, newTrustManagers, ReloadableTrustManager.class, X509ExtendedTrustManager.class)) {
+                return false;
+            }
+            for (int i = 0; keyManagers != null && i < keyManagers.length; i++) {
+                ((ReloadableKeyManager) keyManagers[i]).swap((X509ExtendedKeyManager) newKeyManagers[i]);
+            }
+            for (int i = 0; trustManagers != null && i < trustManagers.length; i++) {
+                ((ReloadableTrustManager) trustManagers[i]).swap(cached((X509ExtendedTrustManager) newTrustManagers[i]));
+            }
+            return true;
+        }
+
+        private static boolean swappable(Object[] current, Object[] replacement, Class<?> reloadable, Class<?> type) {
+            if (current == null || replacement == null) {
+                return current == replacement;
+            }
+            if (current.length != replacement.length) {
+                return false;
+            }
+            for (int i = 0; i < current.length; i++) {
+                if (!reloadable.isInstance(current[i]) || !type.isInstance(replacement[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public SSLEngine createSSLEngine() {
+            return new HandshakeTrackingSslEngine(delegate.createSSLEngine(), handshakeListener);
+        }
+
+        @Override
+        public synchronized void init(KeyManager[] kms, TrustManager[] tms, SecureRandom sr) throws KeyManagementException {
+            delegate.init(kms, tms, sr);
+            this.keyManagers = kms != null ? kms.clone() : null;
+            this.trustManagers = tms != null ? tms.clone() : null;
+        }
+
+        @Override
+        public void destroy() {
+            delegate.destroy();
+        }
+
+        @Override
+        public SSLSessionContext getServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        public SSLServerSocketFactory getServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        public SSLParameters getSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(String alias) {
+            return delegate.getCertificateChain(alias);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.server.tls;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.tomcat.util.net.SSLContext;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
+import org.apache.tomcat.util.net.SSLUtilBase;
+import org.apache.tomcat.util.net.jsse.JSSEUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.Ssl;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ResourceUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the secure connector's {@code server.ssl.key-store} and {@code server.ssl.trust-store}
+ * files, and the client certificate revocation list if one is configured, and loads them into the
+ * running connector when they change, so a rotated certificate is served without a restart.
+ * <p>
+ * The new stores are loaded and turned into key and trust managers off the request path; only then
+ * are they swapped into the connector's existing SSL contexts ({@link ReloadableKeyManager}). The
+ * contexts themselves are kept, so established connections are untouched and sessions cached or
+ * ticketed before the swap can still be resumed. Cached client certificate validations are dropped
+ * with the old trust managers. A store that fails to load leaves the current ones in place and is
+ * retried once the files change again.
+ * <p>
+ * Reloads are timed as {@code tls.store.reload}, tagged with their result. Only stores on the file
+ * system are watched; {@code classpath:} stores cannot change at runtime.
+ */
+@Component
+public class KeyStoreReloader implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyStoreReloader.class);
+
+    private record FileState(FileTime modified, long size) {
+    }
+
+    private final Ssl ssl;
+    private final TlsReloadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Path keyStoreFile;
+    private final Path trustStoreFile;
+    private final Path revocationListFile;
+    private final CertificateValidationCache validationCache;
+
+    private volatile Connector connector;
+    private FileState keyStoreState;
+    private FileState trustStoreState;
+    private FileState revocationListState;
+
+    public KeyStoreReloader(ServerProperties serverProperties, TlsReloadProperties properties,
+                            ClientCertificateValidationProperties validationProperties,
+                            CertificateValidationCache validationCache, MeterRegistry meterRegistry) {
+        this.ssl = serverProperties.getSsl();
+        this.properties = properties;
+        this.validationCache = validationCache;
+        this.meterRegistry = meterRegistry;
+        this.keyStoreFile = ssl != null ? fileOf(ssl.getKeyStore()) : null;
+        this.trustStoreFile = ssl != null ? fileOf(ssl.getTrustStore()) : null;
+        this.revocationListFile = fileOf(validationProperties.revocationList());
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (watching()) {
+            taskRegistrar.addFixedDelayTask(this::reloadIfChanged, properties.interval());
+        }
+    }
+
+    @EventListener
+    public void onWebServerInitialized(ServletWebServerInitializedEvent event) {
+        // The management server publishes the same event from its own namespace
+        if (event.getApplicationContext().getServerNamespace() == null
+                && event.getWebServer() instanceof TomcatWebServer tomcatWebServer) {
+            synchronized (this) {
+                keyStoreState = stateOf(keyStoreFile);
+                trustStoreState = stateOf(trustStoreFile);
+                revocationListState = stateOf(revocationListFile);
+            }
+            connector = tomcatWebServer.getTomcat().getConnector();
+            if (watching()) {
+                log.info("Watching TLS stores for changes every {}: key store {}, trust store {}, revocation list {}",
+                        properties.interval(), Objects.toString(keyStoreFile, "(not a file)"),
+                        Objects.toString(trustStoreFile, "(not a file)"),
+                        Objects.toString(revocationListFile, "(none)"));
+            }
+        }
+    }
+
+    private boolean watching() {
+        return properties.enabled() && (keyStoreFile != null || trustStoreFile != null || revocationListFile != null);
+    }
+
+    public synchronized void reloadIfChanged() {
+        if (connector == null) {
+            return;
+        }
+        FileState keyStore = stateOf(keyStoreFile);
+        FileState trustStore = stateOf(trustStoreFile);
+        FileState revocationList = stateOf(revocationListFile);
+        if (Objects.equals(keyStore, keyStoreState) && Objects.equals(trustStore, trustStoreState)
+                && Objects.equals(revocationList, revocationListState)) {
+            return;
+        }
+        // Remembered even if the reload fails: a half-written file is retried once it changes again
+        keyStoreState = keyStore;
+        trustStoreState = trustStore;
+        revocationListState = revocationList;
+        reload();
+    }
+
+    /**
+     * Loads both stores, and the revocation list through Tomcat, and swaps them into the secure connector.
+     *
+     * @return whether the reload succeeded
+     */
+    public synchronized boolean reload() {
+        Connector current = connector;
+        if (current == null || !(current.getProtocolHandler() instanceof AbstractHttp11JsseProtocol<?> protocol)
+                || !protocol.isSSLEnabled()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            KeyStore keyStore = ssl.getKeyStore() != null
+                    ? load(ssl.getKeyStore(), ssl.getKeyStoreType(), ssl.getKeyStoreProvider(), ssl.getKeyStorePassword())
+                    : null;
+            KeyStore trustStore = ssl.getTrustStore() != null
+                    ? load(ssl.getTrustStore(), ssl.getTrustStoreType(), ssl.getTrustStoreProvider(), ssl.getTrustStorePassword())
+                    : null;
+            for (SSLHostConfig sslHostConfig : protocol.findSslHostConfigs()) {
+                swap(protocol, sslHostConfig, keyStore, trustStore);
+            }
+            success = true;
+        } catch (Exception e) {
+            log.warn("Reloading TLS stores failed; the connector keeps its current certificates", e);
+        } finally {
+            // Also after a partial swap; validations still running against the old trust managers are not kept either
+            validationCache.invalidateAll();
+            Timer.builder("tls.store.reload")
+                    .description("Reloads of the secure connector's key store and trust store")
+                    .tag("result", success ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return success;
+    }
+
+    private void swap(AbstractHttp11JsseProtocol<?> protocol, SSLHostConfig sslHostConfig,
+                      KeyStore keyStore, KeyStore trustStore) throws Exception {
+        if (trustStore != null) {
+            sslHostConfig.setTrustStore(trustStore);
+        }
+        boolean swapped = true;
+        for (SSLHostConfigCertificate certificate : sslHostConfig.getCertificates()) {
+            if (keyStore != null) {
+                certificate.setCertificateKeystore(keyStore);
+            }
+            // Plain Tomcat util: same alias selection and trust settings, without the reloadable wrappers
+            JSSEUtil sslUtil = new JSSEUtil(certificate);
+            SSLContext sslContext = certificate.getSslContext();
+            if (sslContext instanceof InstrumentedJsseImplementation.InstrumentedSslContext instrumented
+                    && instrumented.swap(sslUtil.getKeyManagers(), sslUtil.getTrustManagers())) {
+                X509Certificate[] chain = sslContext.getCertificateChain(aliasOf(certificate));
+                log.info("Reloaded TLS stores for host {} ({} certificate): now serving {}, valid until {}",
+                        sslHostConfig.getHostName(), certificate.getType(),
+                        chain != null && chain.length > 0 ? chain[0].getSubjectX500Principal().getName() : "unknown",
+                        chain != null && chain.length > 0 ? chain[0].getNotAfter().toInstant() : "unknown");
+            } else {
+                swapped = false;
+            }
+        }
+        if (!swapped) {
+            // Contexts we cannot update in place are rebuilt by Tomcat; their cached sessions are lost
+            protocol.reloadSslHostConfig(sslHostConfig.getHostName());
+            log.info("Reloaded TLS stores for host {} by recreating its SSL contexts", sslHostConfig.getHostName());
+        }
+    }
+
+    private static KeyStore load(String location, String type, String provider, String password)
+            throws IOException, GeneralSecurityException {
+        KeyStore store = provider != null
+                ? KeyStore.getInstance(type != null ? type : KeyStore.getDefaultType(), provider)
+                : KeyStore.getInstance(type != null ? type : KeyStore.getDefaultType());
+        try (InputStream in = ResourceUtils.getURL(location).openStream()) {
+            store.load(in, password != null ? password.toCharArray() : null);
+        }
+        return store;
+    }
+
+    private static String aliasOf(SSLHostConfigCertificate certificate) {
+        String alias = certificate.getCertificateKeyAlias();
+        return alias != null ? alias : SSLUtilBase.DEFAULT_KEY_ALIAS;
+    }
+
+    private static Path fileOf(String location) {
+        if (location == null) {
+            return null;
+        }
+        try {
+            URL url = ResourceUtils.getURL(location);
+            return ResourceUtils.isFileURL(url) ? ResourceUtils.getFile(url).toPath() : null;
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static FileState stateOf(Path file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new FileState(Files.getLastModifiedTime(file), Files.size(file));
+        } catch (IOException e) {
+            // Missing for a moment while being replaced; compared like any other change
+            return new FileState(null, -1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.server.tls;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.tomcat.util.net.SSLContext;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.apache.tomcat.util.net.SSLHostConfigCertificate;
+import org.apache.tomcat.util.net.SSLUtilBase;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the certificate chains a running Tomcat connector actually presents, leaf first, as
+ * loaded into its current SSL contexts.
+ */
+public final class ServedCertificates {
+
+    private ServedCertificates() {
+    }
+
+    public static List<X509Certificate[]> chains(WebServer webServer) {
+        List<X509Certificate[]> chains = new ArrayList<>();
+        if (webServer instanceof TomcatWebServer tomcatWebServer) {
+            Connector connector = tomcatWebServer.getTomcat().getConnector();
+            if (connector.getProtocolHandler() instanceof AbstractHttp11JsseProtocol<?> protocol
+                    && protocol.isSSLEnabled()) {
+                for (SSLHostConfig sslHostConfig : protocol.findSslHostConfigs()) {
+                    for (SSLHostConfigCertificate certificate : sslHostConfig.getCertificates()) {
+                        X509Certificate[] chain = chain(certificate);
+                        if (chain != null && chain.length > 0) {
+                            chains.add(chain);
+                        }
+                    }
+                }
+            }
+        }
+        return chains;
+    }
+
+    private static X509Certificate[] chain(SSLHostConfigCertificate certificate) {
+        SSLContext sslContext = certificate.getSslContext();
+        if (sslContext == null) {
+            return null;
+        }
+        String alias = certificate.getCertificateKeyAlias();
+        return sslContext.getCertificateChain(alias != null ? alias : SSLUtilBase.DEFAULT_KEY_ALIAS);
+    }
+}
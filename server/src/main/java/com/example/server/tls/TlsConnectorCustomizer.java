@@ -0,0 +1,74 @@
+package com.example.server.tls;
+
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ResourceUtils;
+
+import java.io.FileNotFoundException;
+
+/**
+ * Applies {@link TlsSessionProperties} and the client certificate revocation list to the secure
+ * connector, and installs the instrumented JSSE implementation that feeds {@link TlsSessionMetrics}
+ * and checks client certificates through the {@link CertificateValidationCache}.
+ * <p>
+ * Only the application server's factory is customized; the management server on its own port keeps
+ * the default connector.
+ */
+@Component
+public class TlsConnectorCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private static final String SESSION_TICKETS_PROPERTY = "jdk.tls.server.enableSessionTicketExtension";
+
+    private final TlsSessionProperties sessionProperties;
+    private final TlsSessionMetrics sessionMetrics;
+    private final ClientCertificateValidationProperties validationProperties;
+    private final CertificateValidationCache validationCache;
+
+    public TlsConnectorCustomizer(TlsSessionProperties sessionProperties, TlsSessionMetrics sessionMetrics,
+                                  ClientCertificateValidationProperties validationProperties,
+                                  CertificateValidationCache validationCache) {
+        this.sessionProperties = sessionProperties;
+        this.sessionMetrics = sessionMetrics;
+        this.validationProperties = validationProperties;
+        this.validationCache = validationCache;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        // JSSE reads this once, when the first SSLContext is initialised, which happens after
+        // factory customization when the connector starts.
+        System.setProperty(SESSION_TICKETS_PROPERTY, Boolean.toString(sessionProperties.ticketsEnabled()));
+        InstrumentedJsseImplementation.setHandshakeListener(sessionMetrics);
+        InstrumentedJsseImplementation.setValidationCache(validationProperties.cacheEnabled() ? validationCache : null);
+        String revocationList = revocationListUrl(validationProperties.revocationList());
+
+        factory.addConnectorCustomizers(connector -> {
+            if (connector.getProtocolHandler() instanceof AbstractHttp11JsseProtocol<?> protocol
+                    && protocol.isSSLEnabled()) {
+                protocol.setSslImplementationName(InstrumentedJsseImplementation.class.getName());
+                for (SSLHostConfig sslHostConfig : protocol.findSslHostConfigs()) {
+                    sslHostConfig.setSessionCacheSize(sessionProperties.cacheSize());
+                    sslHostConfig.setSessionTimeout((int) sessionProperties.timeout().toSeconds());
+                    if (revocationList != null) {
+                        sslHostConfig.setCertificateRevocationListFile(revocationList);
+                    }
+                }
+            }
+        });
+    }
+
+    // Tomcat resolves file paths and URLs but not Spring's classpath: prefix
+    private static String revocationListUrl(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        try {
+            return ResourceUtils.getURL(location).toString();
+        } catch (FileNotFoundException e) {
+            throw new IllegalStateException("Certificate revocation list not found: " + location, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.server.tls;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * Callback for completed server-side TLS handshakes on the secure connector.
+ */
+@FunctionalInterface
+public interface TlsHandshakeListener {
+
+    /**
+     * @param session the negotiated session
+     * @param resumed {@code true} for an abbreviated handshake that reused a cached session or ticket
+     */
+    void handshakeCompleted(SSLSession session, boolean resumed);
+}
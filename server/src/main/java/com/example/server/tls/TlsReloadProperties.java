@@ -0,0 +1,19 @@
+package com.example.server.tls;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Hot reload of the secure connector's key store and trust store.
+ *
+ * @param enabled  whether {@code server.ssl.key-store}, {@code server.ssl.trust-store} and
+ *                 {@code server.ssl.client-validation.revocation-list} files are watched
+ * @param interval how often the files' modification time and size are checked
+ */
+@ConfigurationProperties("server.ssl.reload")
+public record TlsReloadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10s") Duration interval) {
+}
@@ -0,0 +1,46 @@
+package com.example.server.tls;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLSession;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes session cache hits (abbreviated handshakes) and misses (full handshakes) of the secure
+ * connector as {@code tls.session.cache} counters, tagged by result and protocol. The counters are
+ * registered once per protocol and reused, so a handshake only increments one.
+ */
+@Component
+public class TlsSessionMetrics implements TlsHandshakeListener {
+
+    private record ProtocolCounters(Counter hit, Counter miss) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    // A handful of entries: one per protocol version the connector negotiates
+    private final ConcurrentHashMap<String, ProtocolCounters> counters = new ConcurrentHashMap<>();
+
+    public TlsSessionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void handshakeCompleted(SSLSession session, boolean resumed) {
+        ProtocolCounters protocolCounters = counters.computeIfAbsent(session.getProtocol(), this::register);
+        (resumed ? protocolCounters.hit() : protocolCounters.miss()).increment();
+    }
+
+    private ProtocolCounters register(String protocol) {
+        return new ProtocolCounters(counter(protocol, "hit"), counter(protocol, "miss"));
+    }
+
+    private Counter counter(String protocol, String result) {
+        return Counter.builder("tls.session.cache")
+                .description("Server TLS handshakes by session cache result (hit = resumed, miss = full handshake)")
+                .tag("result", result)
+                .tag("protocol", protocol)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.server.tls;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Server-side TLS session resumption settings for the secure connector.
+ *
+ * @param cacheSize      maximum number of sessions kept in the server session cache (0 = unlimited)
+ * @param timeout        how long a cached session or issued session ticket stays resumable
+ * @param ticketsEnabled whether stateless session tickets (RFC 5077 / TLS 1.3 PSK) are issued
+ */
+@ConfigurationProperties("server.ssl.session")
+public record TlsSessionProperties(
+        @DefaultValue("20480") int cacheSize,
+        @DefaultValue("24h") Duration timeout,
+        @DefaultValue("true") boolean ticketsEnabled) {
+}
@@ -0,0 +1,101 @@
+package com.example.server.tls;
+
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Trust manager that skips validating client certificate chains the {@link CertificateValidationCache}
+ * already saw pass. Server chains are not cached; the connector never validates any.
+ * <p>
+ * On the engine and socket overloads the delegate also checks the chain against the signature
+ * schemes of the handshake in progress, so a validation is only reused for a handshake with the
+ * same protocol and the same local signature schemes, which are part of the cache key. A handshake
+ * without a session to read them from always goes to the delegate.
+ */
+final class ValidationCachingTrustManager extends X509ExtendedTrustManager {
+
+    private final X509ExtendedTrustManager delegate;
+    private final CertificateValidationCache cache;
+
+    ValidationCachingTrustManager(X509ExtendedTrustManager delegate, CertificateValidationCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        SSLSession session = socket instanceof SSLSocket sslSocket ? sslSocket.getHandshakeSession() : null;
+        if (session == null) {
+            delegate.checkClientTrusted(chain, authType, socket);
+            return;
+        }
+        String context = contextOf(authType, session);
+        if (!cache.isValidated(chain, context)) {
+            long generation = cache.generation();
+            delegate.checkClientTrusted(chain, authType, socket);
+            cache.validated(chain, context, generation);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        SSLSession session = engine != null ? engine.getHandshakeSession() : null;
+        if (session == null) {
+            delegate.checkClientTrusted(chain, authType, engine);
+            return;
+        }
+        String context = contextOf(authType, session);
+        if (!cache.isValidated(chain, context)) {
+            long generation = cache.generation();
+            delegate.checkClientTrusted(chain, authType, engine);
+            cache.validated(chain, context, generation);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        if (!cache.isValidated(chain, authType)) {
+            long generation = cache.generation();
+            delegate.checkClientTrusted(chain, authType);
+            cache.validated(chain, authType, generation);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        delegate.checkServerTrusted(chain, authType, socket);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        delegate.checkServerTrusted(chain, authType, engine);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+
+    // What the delegate's algorithm constraints depend on besides the connector's configuration
+    private static String contextOf(String authType, SSLSession session) {
+        String schemes = session instanceof ExtendedSSLSession extended
+                ? String.join(",", extended.getLocalSupportedSignatureAlgorithms())
+                : "";
+        return authType + '/' + session.getProtocol() + '/' + schemes;
+    }
+}